@@ -5,10 +5,11 @@ plugins {
     id("maven-publish")
     id("signing")
     id("com.vanniktech.maven.publish") version "0.30.0"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "net.goldenstack.window"
-version = "1.2"
+version = "2.0"
 description = "Useful API for Minestom inventories"
 
 repositories {
@@ -22,12 +23,27 @@ dependencies {
 
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.2")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+
+    jmh(minestom)
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+// Run with `./gradlew jmh`, optionally with `-PjmhIncludes=<regex>` to select benchmarks; see src/jmh/BASELINE.md
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(21))
@@ -0,0 +1,51 @@
+package net.goldenstack.window.benchmark;
+
+import net.goldenstack.window.InventoryView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures slot conversion through arbitrary views with dense IDs (a shuffled chest) and sparse IDs (spread far apart).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArbitraryBenchmark {
+
+    @Param({"dense", "sparse"})
+    public String ids;
+
+    private InventoryView view;
+    private int[] externalSlots;
+
+    @Setup
+    public void setup() {
+        externalSlots = switch (ids) {
+            case "dense" -> IntStream.range(0, 54).map(slot -> (slot * 7) % 54).toArray();
+            case "sparse" -> IntStream.range(0, 54).map(slot -> slot * 997 + (slot % 3)).toArray();
+            default -> throw new IllegalArgumentException("Unknown IDs " + ids + "!");
+        };
+        view = InventoryView.arbitrary(externalSlots);
+    }
+
+    @Benchmark
+    public int localToExternal() {
+        int sum = 0;
+        for (int slot = 0; slot < view.size(); slot++) {
+            sum += view.localToExternal(slot);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int externalToLocal() {
+        int sum = 0;
+        for (int slot : externalSlots) {
+            sum += view.externalToLocal(slot);
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,119 @@
+package net.goldenstack.window.benchmark;
+
+import net.goldenstack.window.InventoryView;
+import net.goldenstack.window.Views;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.inventory.Inventory;
+import net.minestom.server.inventory.InventoryType;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.Material;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the bulk operations of views against a real double chest inventory. {@code add} runs on a nearly full
+ * inventory and {@code clear} runs on a full one, which are reset before each invocation. {@code merge} adds an item
+ * that fits into the first slot and then restores that slot itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InventoryBenchmark {
+
+    private static final ItemStack STONE = ItemStack.of(Material.STONE, 64);
+    private static final ItemStack DIAMOND = ItemStack.of(Material.DIAMOND);
+    private static final ItemStack HALF_STONE = ItemStack.of(Material.STONE, 32);
+    private static final ItemStack ONE_STONE = ItemStack.of(Material.STONE);
+
+    private final InventoryView view = Views.DoubleChest.STORAGE;
+    private final ItemStack[] items = new ItemStack[54];
+    private Inventory inv;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MinecraftServer.init();
+        inv = new Inventory(InventoryType.CHEST_6_ROW, "benchmark");
+    }
+
+    @State(Scope.Thread)
+    public static class NearlyFull {
+
+        @Setup(Level.Invocation)
+        public void reset(InventoryBenchmark benchmark) {
+            benchmark.view.fill(benchmark.inv, slot -> slot < 53 ? STONE : ItemStack.AIR);
+        }
+
+    }
+
+    // Only the first slot isn't full
+    @State(Scope.Thread)
+    public static class Partial {
+
+        @Setup(Level.Trial)
+        public void reset(InventoryBenchmark benchmark) {
+            benchmark.view.fill(benchmark.inv, slot -> slot == 0 ? HALF_STONE : STONE);
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Full {
+
+        @Setup(Level.Invocation)
+        public void reset(InventoryBenchmark benchmark) {
+            benchmark.view.fill(benchmark.inv, slot -> STONE);
+        }
+
+    }
+
+    @Benchmark
+    public ItemStack add(NearlyFull state) {
+        return view.add(inv, DIAMOND);
+    }
+
+    // Restores the slot itself rather than via invocation-level setup, as the allocations of setup are included in
+    //  gc.alloc.rate.norm
+    @Benchmark
+    public ItemStack merge(Partial state) {
+        var remaining = view.add(inv, ONE_STONE);
+        view.set(inv, 0, HALF_STONE);
+        return remaining;
+    }
+
+    // Alternates between two layouts so that every slot actually changes, as equal writes are skipped by Minestom
+    @Benchmark
+    public void fill() {
+        boolean odd = flip = !flip;
+        view.fill(inv, slot -> ((slot & 1) == 0) == odd ? STONE : DIAMOND);
+    }
+
+    @Benchmark
+    public void clear(Full state) {
+        view.clear(inv);
+    }
+
+    // Should allocate nothing, as the array is reused and contiguous views keep their resolved external slots
+    @Benchmark
+    public void collectInto(Blackhole blackhole) {
+        view.collectInto(inv, items, 0);
+        blackhole.consume(items);
+    }
+
+    // The same, through the delegate records of Views
+    @Benchmark
+    public void collectIntoLayout(Blackhole blackhole) {
+        Views.doubleChest().collectInto(inv, items, 0);
+        blackhole.consume(items);
+    }
+
+    @Benchmark
+    public void collect(Blackhole blackhole) {
+        List<ItemStack> items = view.collect(inv);
+        blackhole.consume(items);
+    }
+
+}
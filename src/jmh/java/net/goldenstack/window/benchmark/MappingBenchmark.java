@@ -0,0 +1,61 @@
+package net.goldenstack.window.benchmark;
+
+import net.goldenstack.window.InventoryView;
+import net.goldenstack.window.ViewInterner;
+import net.goldenstack.window.Views;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures slot conversion through the layouts in {@link Views}, from the root views down to single slots, plus a
+ * view that can't be simplified by the factory methods, both as is and {@link InventoryView#specialize() specialized}.
+ * Also measures looking up an already interned fork of each view, which shouldn't allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    @Param({"player", "contents", "hotbar", "helmet", "nested", "nested-specialized"})
+    public String layout;
+
+    private InventoryView view;
+
+    @Setup
+    public void setup() {
+        view = switch (layout) {
+            case "player" -> Views.Player.VIEW;
+            case "contents" -> Views.Player.Contents.VIEW;
+            case "hotbar" -> Views.Player.Contents.HOTBAR;
+            case "helmet" -> Views.Player.Armor.HELMET;
+            case "nested" -> Views.Player.Contents.VIEW.reverse().fork(1, 5, 9, 20, 35).reverse();
+            case "nested-specialized" -> Views.Player.Contents.VIEW.reverse().fork(1, 5, 9, 20, 35).reverse().specialize();
+            default -> throw new IllegalArgumentException("Unknown layout " + layout + "!");
+        };
+    }
+
+    @Benchmark
+    public int localToExternal() {
+        int sum = 0;
+        for (int slot = 0; slot < view.size(); slot++) {
+            sum += view.localToExternal(slot);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int externalToLocal() {
+        int sum = 0;
+        for (int slot = 0; slot < 46; slot++) {
+            sum += view.externalToLocal(slot);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public InventoryView internedFork() {
+        return ViewInterner.global().fork(view, 0);
+    }
+
+}
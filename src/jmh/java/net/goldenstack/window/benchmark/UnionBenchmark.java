@@ -0,0 +1,50 @@
+package net.goldenstack.window.benchmark;
+
+import net.goldenstack.window.InventoryView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures slot conversion through unions of non-adjacent two-slot views, which can't be merged into one view.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnionBenchmark {
+
+    @Param({"2", "8", "16", "64"})
+    public int children;
+
+    private InventoryView view;
+    private int externalSize;
+
+    @Setup
+    public void setup() {
+        var views = new InventoryView[children];
+        for (int i = 0; i < children; i++) {
+            views[i] = InventoryView.contiguous(i * 3, i * 3 + 2);
+        }
+        view = InventoryView.union(views);
+        externalSize = children * 3;
+    }
+
+    @Benchmark
+    public int localToExternal() {
+        int sum = 0;
+        for (int slot = 0; slot < view.size(); slot++) {
+            sum += view.localToExternal(slot);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int externalToLocal() {
+        int sum = 0;
+        for (int slot = 0; slot < externalSize; slot++) {
+            sum += view.externalToLocal(slot);
+        }
+        return sum;
+    }
+
+}
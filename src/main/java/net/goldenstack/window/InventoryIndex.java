@@ -0,0 +1,236 @@
+package net.goldenstack.window;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minestom.server.event.EventListener;
+import net.minestom.server.event.inventory.InventoryItemChangeEvent;
+import net.minestom.server.inventory.AbstractInventory;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.Material;
+import net.minestom.server.tag.Tag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An optional index of the slots in an inventory, which is kept up to date via the inventory's
+ * {@link InventoryItemChangeEvent item change events}. Once attached, views use it to find slots by material without
+ * scanning every slot, which speeds up operations like {@link InventoryView#add(AbstractInventory, ItemStack)} and
+ * {@link InventoryView#count(AbstractInventory, Material)} on large inventories. It also tracks which slots are empty,
+ * so that adding items and {@link InventoryView#firstEmpty(AbstractInventory)} don't scan for free slots.<br>
+ * Slots are indexed by their external slot IDs relative to the inventory, so one index serves every view.<br>
+ * The index is eventually consistent: it's updated by a listener that runs after each slot is written, and that reads
+ * the slot again instead of trusting the event, so once writes (and their events) have finished it matches the
+ * inventory, but while they're in progress it may not. Views only use it to narrow down searches and always check the
+ * slots themselves, so a stale index may make them slower but never wrong. Reads share a read-write lock and only wait
+ * for updates, which doesn't pin virtual threads.<br>
+ * The index lives as long as its inventory, as both it and its listener are only referenced from the inventory; it
+ * only has to be {@link #detach() detached} to stop maintaining it earlier.
+ */
+public final class InventoryIndex {
+
+    private static final Tag<InventoryIndex> INDEX = Tag.Transient("window:index");
+
+    /**
+     * Attaches an index to the provided inventory, or returns the existing one if there is one.
+     * @param inv the inventory to index
+     * @return the index of the inventory
+     */
+    public static @NotNull InventoryIndex attach(@NotNull AbstractInventory inv) {
+        var existing = inv.getTag(INDEX);
+        if (existing != null) {
+            return existing;
+        }
+
+        var created = new InventoryIndex(inv);
+        var index = inv.updateAndGetTag(INDEX, current -> current != null ? current : created);
+        if (index == created) {
+            inv.eventNode().addListener(index.listener);
+            // Slots written before the listener was added are read here instead, and later writes are read again
+            //  by the listener after this, so no write is missed whichever of the two sees it first
+            index.rebuild();
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index attached to the provided inventory, if there is one.
+     * @param inv the inventory to get the index of
+     * @return the index of the inventory, or null if it isn't indexed
+     */
+    public static @Nullable InventoryIndex get(@NotNull AbstractInventory inv) {
+        return inv.getTag(INDEX);
+    }
+
+    private final @NotNull AbstractInventory inv;
+    private final @NotNull EventListener<InventoryItemChangeEvent> listener;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock; AIR is never a key, as empty slots aren't indexed by material
+    private final Material[] materials;
+    private final Map<Material, BitSet> slotsByMaterial = new HashMap<>();
+    private final BitSet emptySlots = new BitSet();
+
+    private InventoryIndex(@NotNull AbstractInventory inv) {
+        this.inv = inv;
+        this.listener = EventListener.of(InventoryItemChangeEvent.class, event -> refresh(event.getSlot()));
+        this.materials = new Material[inv.getSize()];
+    }
+
+    /**
+     * Detaches this index from its inventory, so that it's no longer updated or used by views.
+     */
+    public void detach() {
+        inv.eventNode().removeListener(listener);
+        inv.updateTag(INDEX, current -> current == this ? null : current);
+    }
+
+    /**
+     * Returns the external slots of the inventory that contain items of the provided material.
+     * @param material the material to find
+     * @return a new set of the external slots with the material
+     */
+    public @NotNull BitSet slots(@NotNull Material material) {
+        lock.readLock().lock();
+        try {
+            var slots = slotsByMaterial.get(material);
+            return slots != null ? (BitSet) slots.clone() : new BitSet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the external slots of the inventory that are empty (i.e. air).
+     * @return a new set of the empty external slots
+     */
+    public @NotNull BitSet emptySlots() {
+        lock.readLock().lock();
+        try {
+            return (BitSet) emptySlots.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the first local slot of the provided view, at or after the provided one, that is empty.<br>
+     * Contiguous views are found with a single bit scan; other views check each slot's bit in local order.
+     * @param view the view to find an empty slot in
+     * @param fromLocal the local slot to start from
+     * @return the first empty local slot at or after {@code fromLocal}, or -1 if there are none
+     */
+    int nextEmpty(@NotNull InventoryView view, int fromLocal) {
+        // Layouts in Views and views with a lock strategy map slots exactly like the views that they wrap
+        var target = InventoryViewImpl.unwrap(view);
+        lock.readLock().lock();
+        try {
+            if (target instanceof InventoryViewImpl.ContiguousFork fork) {
+                final int min = fork.min(), max = fork.max();
+                int slot = fromLocal < max - min ? emptySlots.nextSetBit(min + fromLocal) : -1;
+                return slot != -1 && slot < max ? slot - min : -1;
+            }
+
+            final int size = target.size();
+            for (int local = fromLocal; local < size; local++) {
+                int external = target.localToExternal(local);
+                if (external >= 0 && emptySlots.get(external)) {
+                    return local;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the local slots of the provided view that contain items of the provided material, in ascending order.
+     * @param view the view to find slots in
+     * @param material the material to find
+     * @return the sorted local slots of the view with the material
+     */
+    @NotNull IntArrayList localSlots(@NotNull InventoryView view, @NotNull Material material) {
+        var localSlots = new IntArrayList();
+        lock.readLock().lock();
+        try {
+            var slots = slotsByMaterial.get(material);
+            if (slots == null) {
+                return localSlots;
+            }
+
+            boolean sorted = true;
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                int local = view.externalToLocal(slot);
+                if (local != -1) {
+                    sorted &= localSlots.isEmpty() || localSlots.getInt(localSlots.size() - 1) < local;
+                    localSlots.add(local);
+                }
+            }
+
+            if (!sorted) {
+                localSlots.sort(null);
+            }
+            return localSlots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            slotsByMaterial.clear();
+            emptySlots.clear();
+            for (int slot = 0; slot < materials.length; slot++) {
+                materials[slot] = null;
+                update(slot, inv.getItemStack(slot));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The slot is read again under the lock, rather than taken from the event, so that if writes to it race, whichever
+    //  update runs last sees the last write
+    private void refresh(int slot) {
+        if (slot < 0 || slot >= materials.length) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            update(slot, inv.getItemStack(slot));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Must hold the write lock
+    private void update(int slot, @NotNull ItemStack item) {
+        emptySlots.set(slot, item.isAir());
+
+        var previous = materials[slot];
+        var next = item.isAir() ? null : item.material();
+        if (previous == next) {
+            return;
+        }
+
+        if (previous != null) {
+            var slots = slotsByMaterial.get(previous);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                slotsByMaterial.remove(previous);
+            }
+        }
+        if (next != null) {
+            slotsByMaterial.computeIfAbsent(next, material -> new BitSet()).set(slot);
+        }
+        materials[slot] = next;
+    }
+
+}
@@ -1,12 +1,25 @@
 package net.goldenstack.window;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectFunction;
-import it.unimi.dsi.fastutil.ints.IntImmutableList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import net.minestom.server.inventory.AbstractInventory;
 import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.Material;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Provides a view into an inventory via the manipulation of slot IDs. They aren't tied to any specific inventory, so it
@@ -50,7 +63,7 @@ public interface InventoryView {
      * @return the unionized view
      */
     static @NotNull InventoryView union(@NotNull InventoryView @NotNull ... views) {
-        return new InventoryViewImpl.Union(List.of(views));
+        return InventoryViewImpl.union(List.of(views));
     }
 
     /**
@@ -60,7 +73,7 @@ public interface InventoryView {
      * @return the created view that represents the slots
      */
     static @NotNull InventoryView arbitrary(int @NotNull ... externalSlots) {
-        return new InventoryViewImpl.Arbitrary(new IntImmutableList(externalSlots));
+        return InventoryViewImpl.arbitrary(externalSlots);
     }
 
     /**
@@ -70,7 +83,7 @@ public interface InventoryView {
      * @return a view joining the two provided views
      */
     static @NotNull InventoryView join(@NotNull InventoryView parent, @NotNull InventoryView child) {
-        return new InventoryViewImpl.Joiner(parent, child);
+        return InventoryViewImpl.join(parent, child);
     }
 
     /**
@@ -82,7 +95,7 @@ public interface InventoryView {
      * @return a view joining the two provided views
      */
     static @NotNull InventoryView.Singular join(@NotNull InventoryView parent, @NotNull InventoryView.Singular child) {
-        return new InventoryViewImpl.Joiner(parent, child);
+        return InventoryViewImpl.join(parent, child);
     }
 
     /**
@@ -92,7 +105,31 @@ public interface InventoryView {
      * @return the reversed inventory
      */
     static @NotNull InventoryView reversed(@NotNull InventoryView base) {
-        return new InventoryViewImpl.Reversed(base);
+        return InventoryViewImpl.reversed(base);
+    }
+
+    /**
+     * Moves every item in the source view that matches the predicate into the destination view, like shift-clicking
+     * each of them. Each item is first merged into similar stacks in the destination that aren't full, and the
+     * remainder is placed into the first empty slot, in the order of the destination view; items that don't fit stay
+     * in the source slot they were in.<br>
+     * Both views are read once and their slots are locked once (see {@link #lockStrategy()}), so this is much cheaper
+     * than a loop of {@link #add(AbstractInventory, ItemStack)} calls. If the inventories are the same, the views must
+     * not share any slots and must use the same lock strategy, as their slots are locked together.<br>
+     * To fill the destination in the order that vanilla does when shift-clicking from a container into a player's
+     * inventory, use the hotbar and then the storage, both reversed, as the destination, e.g.
+     * {@code InventoryView.union(contents.hotbar().reverse(), contents.storage().reverse())}.
+     * @param srcInv the inventory to move items out of
+     * @param srcView the view of the source inventory to move items out of
+     * @param dstInv the inventory to move items into
+     * @param dstView the view of the destination inventory to move items into
+     * @param predicate the predicate that items must match to be moved
+     * @return a summary of what was moved
+     */
+    static @NotNull TransferResult transfer(@NotNull AbstractInventory srcInv, @NotNull InventoryView srcView,
+                                            @NotNull AbstractInventory dstInv, @NotNull InventoryView dstView,
+                                            @NotNull Predicate<@NotNull ItemStack> predicate) {
+        return InventoryViewImpl.transfer(srcInv, srcView, dstInv, dstView, predicate);
     }
 
     /**
@@ -125,6 +162,87 @@ public interface InventoryView {
 
     }
 
+    /**
+     * Accepts pairs of local and external slot IDs, as provided by {@link #forEachSlot(SlotConsumer)}.
+     */
+    @FunctionalInterface
+    interface SlotConsumer {
+
+        /**
+         * Accepts a local slot ID and the external slot ID that it maps to.
+         * @param localSlot the local slot ID
+         * @param externalSlot the external slot ID that the local slot maps to, or -1 if it's invalid
+         */
+        void accept(int localSlot, int externalSlot);
+
+    }
+
+    /**
+     * A staged copy of the contents of a view, used within
+     * {@link #transaction(AbstractInventory, Consumer)}. Reads and writes only affect the staged copy, which uses the
+     * same local slot IDs as the view that it was created from, until the transaction is committed.
+     */
+    interface Transaction {
+
+        /**
+         * Returns the size of the view that this transaction stages, which is the number of slots that it has.
+         * @return the size of the staged view
+         */
+        int size();
+
+        /**
+         * Gets the staged item at the provided local slot ID, which includes any changes made in this transaction.
+         * @param localSlot the specific local slot to read
+         * @return the staged item at the slot
+         */
+        @NotNull ItemStack get(int localSlot);
+
+        /**
+         * Sets the staged item at the provided local slot ID. This isn't visible outside of this transaction until it
+         * is committed.
+         * @param localSlot the specific local slot to set
+         * @param item the item to set the slot to
+         */
+        void set(int localSlot, @NotNull ItemStack item);
+
+    }
+
+    /**
+     * How bulk writes treat slots that already contain the item being written to them.
+     */
+    enum WriteMode {
+
+        /**
+         * Every slot is written, even if it's unchanged, so each write sends its slot to viewers.
+         */
+        ALWAYS,
+
+        /**
+         * Slots that already contain the item being written are skipped. Items are compared by identity first, and
+         * then by {@link ItemStack#equals(Object)}, so unchanged slots don't send any updates to viewers.
+         */
+        CHANGED
+
+    }
+
+    /**
+     * A summary of {@link #transfer(AbstractInventory, InventoryView, AbstractInventory, InventoryView, Predicate)}.
+     * @param slots the number of source slots that were emptied or reduced
+     * @param moved the total amount of items that were moved
+     * @param remaining the total amount of matching items that didn't fit and stayed in the source view
+     */
+    record TransferResult(int slots, int moved, int remaining) {
+
+        /**
+         * Returns whether every matching item was moved.
+         * @return true if no matching items remain in the source view
+         */
+        public boolean complete() {
+            return remaining == 0;
+        }
+
+    }
+
     /**
      * Returns the size of this view, which is the number of slots that it has.<br>
      * This number must always be greater than or equal to zero, and it indicates that the local slot IDs of 0
@@ -177,6 +295,50 @@ public interface InventoryView {
      */
     boolean isValidExternal(int externalSlot);
 
+    /**
+     * Provides each local slot ID of this view, in order, to the provided action, along with the external slot ID that
+     * it maps to. This is equivalent to calling {@link #localToExternal(int)} for each slot from {@code 0} (inclusive)
+     * to {@link #size()} (exclusive), but implementations should override it when they can convert every slot at once
+     * more efficiently than converting each one individually.
+     * @param action the action to provide the slots to
+     */
+    default void forEachSlot(@NotNull SlotConsumer action) {
+        final int size = size();
+        for (int slot = 0; slot < size; slot++) {
+            action.accept(slot, localToExternal(slot));
+        }
+    }
+
+    /**
+     * Provides the external slot ID of each local slot ID of this view, in order, to the provided action, following
+     * the same semantics as {@link #forEachSlot(SlotConsumer)}.
+     * @param action the action to provide the external slots to
+     */
+    default void forEachExternal(@NotNull IntConsumer action) {
+        forEachSlot((localSlot, externalSlot) -> action.accept(externalSlot));
+    }
+
+    /**
+     * Returns a new array containing the external slot ID of each local slot ID of this view, with the external slot
+     * of local slot {@code i} being at index {@code i}, and with invalid slots being -1.
+     * @return the external slots of this view
+     */
+    default int @NotNull [] externalSlots() {
+        int[] externalSlots = new int[size()];
+        forEachSlot((localSlot, externalSlot) -> externalSlots[localSlot] = externalSlot);
+        return externalSlots;
+    }
+
+    /**
+     * Creates a new cursor over the slots of this view, which can be reset to other views later on.
+     * @return a cursor over this view
+     */
+    default @NotNull SlotCursor cursor() {
+        var cursor = new SlotCursor();
+        cursor.reset(this);
+        return cursor;
+    }
+
     /**
      * Creates a new view that provides a window into a contiguous section of this inventory, following the same
      * semantics as {@link #contiguous(int, int)} except for that the new view's external IDs are equivalent to the
@@ -218,6 +380,50 @@ public interface InventoryView {
         return reversed(this);
     }
 
+    /**
+     * Compiles this view into a flat view that maps slots via precomputed lookup tables, regardless of how deep the
+     * tree that this view represents is. The returned view is equivalent to this one for every local slot ID and for
+     * every external slot ID that one of its local slots maps to, but each conversion costs a single array read.<br>
+     * This is worth doing for views that are used very frequently, as the tables take memory proportional to both the
+     * size of this view and the range of external slot IDs that it covers.
+     * @return the compiled copy of this view
+     */
+    default @NotNull InventoryView compile() {
+        return InventoryViewImpl.Compiled.of(this);
+    }
+
+    /**
+     * Specializes this view into an instance of a new hidden class that implements only its mapping, with its size as
+     * a constant and each conversion being either arithmetic (for consecutive slots, in either direction) or a single
+     * switch. The returned view is equivalent to this one in the same way as {@link #compile()}, but the JIT can inline
+     * and constant-fold its conversions when it's stored in a {@code static final} field.<br>
+     * Each call defines a new class, so this should only be used for the few fixed views that are used the most, and
+     * the result should be kept. Views larger than 4096 slots are compiled instead.
+     * @return the specialized copy of this view
+     */
+    default @NotNull InventoryView specialize() {
+        return ViewSpecializer.specialize(this);
+    }
+
+    /**
+     * Returns the strategy that this view uses to guard operations that involve multiple slots against other threads.
+     * By default, this is {@link LockStrategy#global()}.
+     * @return the lock strategy of this view
+     */
+    default @NotNull LockStrategy lockStrategy() {
+        return LockStrategy.global();
+    }
+
+    /**
+     * Returns a view equivalent to this one, except for that it uses the provided strategy to guard operations that
+     * involve multiple slots. Views forked from the returned view use the same strategy.
+     * @param strategy the lock strategy to use
+     * @return a copy of this view that uses the provided lock strategy
+     */
+    default @NotNull InventoryView withLocking(@NotNull LockStrategy strategy) {
+        return new InventoryViewImpl.Locked(this, strategy);
+    }
+
     /**
      * Gets the item at location of the provided local slot ID in the provided inventory.
      * @param inv the inventory to get the item from
@@ -225,8 +431,11 @@ public interface InventoryView {
      * @return the item at the slot in the inventory
      */
     default @NotNull ItemStack get(@NotNull AbstractInventory inv, int localSlot) {
+        long start = ViewMetricsImpl.start();
         // No need to verify if the slot is valid in the inventory because the inventory will handle it
-        return inv.getItemStack(localToExternal(localSlot));
+        var item = inv.getItemStack(InventoryViewImpl.localToExternal(this, localSlot));
+        ViewMetricsImpl.end(ViewMetrics.Operation.GET, this, start);
+        return item;
     }
 
     /**
@@ -236,45 +445,319 @@ public interface InventoryView {
      * @param item the item to set the slot to
      */
     default void set(@NotNull AbstractInventory inv, int localSlot, @NotNull ItemStack item) {
+        long start = ViewMetricsImpl.start();
         // No need to verify if the slot is valid in the inventory because the inventory will handle it
-        inv.setItemStack(localToExternal(localSlot), item);
+        inv.setItemStack(InventoryViewImpl.localToExternal(this, localSlot), item);
+        ViewMetricsImpl.end(ViewMetrics.Operation.SET, this, start);
+    }
+
+    /**
+     * Gets the items at the locations of each of the provided local slot IDs in the provided inventory, storing them in
+     * the provided array. The item at {@code localSlots[i]} is stored in {@code out[i]}.<br>
+     * All slots are resolved before the inventory is touched, and the slots are locked for the duration of the read
+     * (see {@link #lockStrategy()}), so the result is consistent with other multi-slot operations like {@link #add(AbstractInventory, ItemStack)}.
+     * @param inv the inventory to get the items from
+     * @param localSlots the specific local slots to read
+     * @param out the array to store the items in, which must be the same length as {@code localSlots}
+     */
+    default void getAll(@NotNull AbstractInventory inv, int @NotNull [] localSlots, @NotNull ItemStack @NotNull [] out) {
+        if (localSlots.length != out.length) {
+            throw new IllegalArgumentException("The slot and item arrays must have the same length!");
+        }
+
+        int[] externalSlots = InventoryViewImpl.resolve(this, localSlots);
+        InventoryViewImpl.read(lockStrategy(), inv, externalSlots, out, 0);
+    }
+
+    /**
+     * Sets the items at the locations of each of the provided local slot IDs in the provided inventory. The slot
+     * {@code localSlots[i]} is set to {@code items[i]}.<br>
+     * All slots are resolved before the inventory is touched, and the slots are locked for the duration of the write
+     * (see {@link #lockStrategy()}), so the writes are applied together with respect to other multi-slot operations.
+     * @param inv the inventory to set the items in
+     * @param localSlots the specific local slots to set
+     * @param items the items to set the slots to, which must be the same length as {@code localSlots}
+     */
+    default void setAll(@NotNull AbstractInventory inv, int @NotNull [] localSlots, @NotNull ItemStack @NotNull [] items) {
+        setAll(inv, localSlots, items, WriteMode.ALWAYS);
+    }
+
+    /**
+     * Sets the items at the locations of each of the provided local slot IDs in the provided inventory, following the
+     * same semantics as {@link #setAll(AbstractInventory, int[], ItemStack[])}, except for that slots may be skipped
+     * depending on the write mode.
+     * @param inv the inventory to set the items in
+     * @param localSlots the specific local slots to set
+     * @param items the items to set the slots to, which must be the same length as {@code localSlots}
+     * @param mode how to treat slots that already contain their item
+     */
+    default void setAll(@NotNull AbstractInventory inv, int @NotNull [] localSlots, @NotNull ItemStack @NotNull [] items, @NotNull WriteMode mode) {
+        if (localSlots.length != items.length) {
+            throw new IllegalArgumentException("The slot and item arrays must have the same length!");
+        }
+
+        int[] externalSlots = InventoryViewImpl.resolve(this, localSlots);
+        InventoryViewImpl.write(this, inv, externalSlots, items, mode);
+    }
+
+    /**
+     * Gets the items in the provided range of local slot IDs in the provided inventory, following the same semantics as
+     * {@link #getAll(AbstractInventory, int[], ItemStack[])}. The item at local slot {@code localMin + i} is stored in
+     * {@code out[i]}.
+     * @param inv the inventory to get the items from
+     * @param localMin the minimum local slot value (inclusive)
+     * @param localMax the maximum local slot value (exclusive)
+     * @param out the array to store the items in, which must have a length of {@code localMax - localMin}
+     */
+    default void getRange(@NotNull AbstractInventory inv, int localMin, int localMax, @NotNull ItemStack @NotNull [] out) {
+        if (localMax - localMin != out.length) {
+            throw new IllegalArgumentException("The item array must have the same length as the range!");
+        }
+
+        int[] externalSlots = InventoryViewImpl.resolve(this, localMin, localMax);
+        InventoryViewImpl.read(lockStrategy(), inv, externalSlots, out, 0);
     }
 
     /**
-     * Adds the provided item to the provided inventory, reducing the count of the item when applicable.
+     * Sets the items in the provided range of local slot IDs in the provided inventory, following the same semantics
+     * as {@link #setAll(AbstractInventory, int[], ItemStack[])}. The local slot {@code localMin + i} is set to
+     * {@code items[i]}.
+     * @param inv the inventory to set the items in
+     * @param localMin the minimum local slot value (inclusive)
+     * @param localMax the maximum local slot value (exclusive)
+     * @param items the items to set the slots to, which must have a length of {@code localMax - localMin}
+     */
+    default void setRange(@NotNull AbstractInventory inv, int localMin, int localMax, @NotNull ItemStack @NotNull [] items) {
+        setRange(inv, localMin, localMax, items, WriteMode.ALWAYS);
+    }
+
+    /**
+     * Sets the items in the provided range of local slot IDs in the provided inventory, following the same semantics
+     * as {@link #setRange(AbstractInventory, int, int, ItemStack[])}, except for that slots may be skipped depending
+     * on the write mode.
+     * @param inv the inventory to set the items in
+     * @param localMin the minimum local slot value (inclusive)
+     * @param localMax the maximum local slot value (exclusive)
+     * @param items the items to set the slots to, which must have a length of {@code localMax - localMin}
+     * @param mode how to treat slots that already contain their item
+     */
+    default void setRange(@NotNull AbstractInventory inv, int localMin, int localMax, @NotNull ItemStack @NotNull [] items, @NotNull WriteMode mode) {
+        if (localMax - localMin != items.length) {
+            throw new IllegalArgumentException("The item array must have the same length as the range!");
+        }
+
+        int[] externalSlots = InventoryViewImpl.resolve(this, localMin, localMax);
+        InventoryViewImpl.write(this, inv, externalSlots, items, mode);
+    }
+
+    /**
+     * Adds the provided item to the provided inventory, reducing the count of the item when applicable.<br>
+     * The item is first merged into similar stacks that aren't full, and the remainder is placed into the first empty
+     * slot. Slots are only read until the item has been completely added, so use
+     * {@link #addAll(AbstractInventory, Collection)} to add multiple items at once.
      * @param inv the inventory to add items to
      * @param item the item to add to the inventory
      * @return the remaining item after adding
      */
-    @SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
     default @NotNull ItemStack add(@NotNull AbstractInventory inv, @NotNull ItemStack item) {
+        if (item.isAir()) {
+            return ItemStack.AIR;
+        }
+
+        long start = ViewMetricsImpl.start();
+        var event = new ViewEvents.Add();
+        event.begin();
+
+        int[] externalSlots = InventoryViewImpl.resolve(this, 0, size());
+        var result = LockStrategyImpl.lock(lockStrategy(), inv, externalSlots,
+                () -> InventoryViewImpl.addOne(inv, this, externalSlots, item));
+        ViewMetricsImpl.end(ViewMetrics.Operation.ADD, this, start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.view = ViewMetricsImpl.nameOf(this);
+            event.slots = externalSlots.length;
+            event.items = 1;
+            event.moved = item.amount() - (result.isAir() ? 0 : result.amount());
+            event.commit();
+        }
+        return result;
+    }
 
-        synchronized (inv) {
-            for (int slot = 0; slot < size(); slot++) {
-                var get = get(inv, slot);
-                if (!get.isAir() && item.isSimilar(get)) {
-                    if (get.amount() < get.maxStackSize()) {
-                        var total = item.amount() + get.amount();
-                        if (total <= item.maxStackSize()) {
-                            set(inv, slot, get.withAmount(total));
-                            return ItemStack.AIR;
-                        } else {
-                            set(inv, slot, get.withAmount(get.maxStackSize()));
-                            item = item.withAmount(total - get.maxStackSize());
-                        }
-                    }
+    /**
+     * Adds each of the provided items to the provided inventory, in order, reducing the count of each item when
+     * applicable. This is equivalent to calling {@link #add(AbstractInventory, ItemStack)} for each item, except that
+     * the view is only read once and its slots are only locked once.<br>
+     * Each item is first merged into similar stacks that aren't full, and the remainder is placed into the first empty
+     * slot.
+     * @param inv the inventory to add items to
+     * @param items the items to add to the inventory
+     * @return the remaining items after adding, excluding any that were completely added
+     */
+    default @NotNull List<@NotNull ItemStack> addAll(@NotNull AbstractInventory inv, @NotNull Collection<@NotNull ItemStack> items) {
+        long start = ViewMetricsImpl.start();
+        var event = new ViewEvents.Add();
+        event.begin();
+
+        final int size = size();
+        int[] externalSlots = InventoryViewImpl.resolve(this, 0, size);
+
+        var result = LockStrategyImpl.lock(lockStrategy(), inv, externalSlots, () -> {
+            List<ItemStack> leftovers = new ArrayList<>();
+            var plan = new InventoryViewImpl.AddPlan(inv, this, externalSlots);
+            for (var item : items) {
+                var remaining = plan.add(item);
+                if (!remaining.isAir()) {
+                    leftovers.add(remaining);
                 }
             }
+            plan.apply();
+            return leftovers;
+        });
+        ViewMetricsImpl.end(ViewMetrics.Operation.ADD, this, start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.view = ViewMetricsImpl.nameOf(this);
+            event.slots = size;
+            event.items = items.size();
+            event.moved = ViewEvents.amount(items) - ViewEvents.amount(result);
+            event.commit();
+        }
+        return result;
+    }
 
-            for (int slot = 0; slot < size(); slot++) {
+    /**
+     * Counts the total amount of the items in this view in the provided inventory that match the predicate. Air is
+     * never counted.<br>
+     * Like other queries, this reads each slot once, in order, without locking the inventory.
+     * @param inv the inventory to count items in
+     * @param predicate the predicate that items must match to be counted
+     * @return the total amount of the matching items
+     */
+    default int count(@NotNull AbstractInventory inv, @NotNull Predicate<@NotNull ItemStack> predicate) {
+        int count = 0;
+        for (int externalSlot : InventoryViewImpl.resolve(this, 0, size())) {
+            var item = inv.getItemStack(externalSlot);
+            if (!item.isAir() && predicate.test(item)) {
+                count += item.amount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the total amount of the items in this view in the provided inventory that are of the provided material,
+     * following the same semantics as {@link #count(AbstractInventory, Predicate)}. If the inventory has an
+     * {@link InventoryIndex}, only the slots with the material are read.
+     * @param inv the inventory to count items in
+     * @param material the material of the items to count
+     * @return the total amount of items of the material
+     */
+    default int count(@NotNull AbstractInventory inv, @NotNull Material material) {
+        var index = InventoryIndex.get(inv);
+        if (index == null) {
+            return count(inv, item -> item.material() == material);
+        }
+
+        // Slots are read straight from the resolved slots rather than through #get, which would check and convert each
+        //  one again, and their material is checked in case the index hasn't seen a write yet
+        int[] externalSlots = InventoryViewImpl.resolve(this, 0, size());
+        int count = 0;
+        var localSlots = index.localSlots(this, material);
+        for (int i = 0; i < localSlots.size(); i++) {
+            var item = inv.getItemStack(externalSlots[localSlots.getInt(i)]);
+            if (item.material() == material) {
+                count += item.amount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first local slot ID in this view whose item in the provided inventory matches the predicate.
+     * @param inv the inventory to search
+     * @param predicate the predicate that the item must match
+     * @return the first local slot with a matching item, or -1 if there are none
+     */
+    default int indexOf(@NotNull AbstractInventory inv, @NotNull Predicate<@NotNull ItemStack> predicate) {
+        int[] externalSlots = InventoryViewImpl.resolve(this, 0, size());
+        for (int slot = 0; slot < externalSlots.length; slot++) {
+            if (externalSlots[slot] >= 0 && predicate.test(inv.getItemStack(externalSlots[slot]))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether or not any item in this view in the provided inventory matches the predicate.
+     * @param inv the inventory to search
+     * @param predicate the predicate that the item must match
+     * @return true if there is a matching item, and false if not
+     */
+    default boolean contains(@NotNull AbstractInventory inv, @NotNull Predicate<@NotNull ItemStack> predicate) {
+        return indexOf(inv, predicate) != -1;
+    }
+
+    /**
+     * Finds the first local slot ID in this view that is empty (i.e. air) in the provided inventory. If the inventory
+     * has an {@link InventoryIndex}, the slots it considers empty are checked first; as the index only sees writes after
+     * they happen, this may return a later empty slot than one the index hasn't seen be emptied yet, but if there are any
+     * empty slots, one of them is always returned.
+     * @param inv the inventory to search
+     * @return the first empty local slot, or -1 if there are none
+     */
+    default int firstEmpty(@NotNull AbstractInventory inv) {
+        var index = InventoryIndex.get(inv);
+        if (index != null) {
+            for (int slot = index.nextEmpty(this, 0); slot != -1; slot = index.nextEmpty(this, slot + 1)) {
                 if (get(inv, slot).isAir()) {
-                    set(inv, slot, item);
-                    return ItemStack.AIR;
+                    return slot;
                 }
             }
         }
+        return indexOf(inv, ItemStack::isAir);
+    }
 
-        return item;
+    /**
+     * Calculates how many of the provided item could be added to this view in the provided inventory, via both merging
+     * with similar stacks and filling empty slots, following the same rules as
+     * {@link #add(AbstractInventory, ItemStack)}. The amount of the provided item is ignored.
+     * @param inv the inventory to check
+     * @param item the item to check the capacity for
+     * @return the amount of the item that could be added
+     */
+    default int remainingCapacity(@NotNull AbstractInventory inv, @NotNull ItemStack item) {
+        if (item.isAir()) {
+            return 0;
+        }
+
+        int capacity = 0;
+        for (int externalSlot : InventoryViewImpl.resolve(this, 0, size())) {
+            var get = inv.getItemStack(externalSlot);
+            if (get.isAir()) {
+                capacity += item.maxStackSize();
+            } else if (get.material() == item.material() && get.amount() < get.maxStackSize() && item.isSimilar(get)) {
+                capacity += get.maxStackSize() - get.amount();
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Runs the provided action as a transaction over this view in the provided inventory. The action reads and writes
+     * a staged copy of the slots in this view, and, once it completes, the slots that it changed are written to the
+     * inventory at once. If the action throws an exception, none of its changes are written.<br>
+     * The inventory is only locked while copying the slots and while committing the changes, not while the action runs.
+     * If another thread changes a slot that the action read or wrote in the meantime, the changes are discarded and the
+     * action is run again on a fresh copy; after several failed attempts, it is run while holding the lock instead.
+     * Thus, the action may be run more than once, so it shouldn't have any side effects outside of the transaction.
+     * @param inv the inventory to run the transaction on
+     * @param action the action to run on the staged copy of this view
+     */
+    default void transaction(@NotNull AbstractInventory inv, @NotNull Consumer<@NotNull Transaction> action) {
+        InventoryViewImpl.StagedTransaction.run(this, inv, action);
     }
 
     /**
@@ -284,9 +767,41 @@ public interface InventoryView {
      * @param filler the function that provides items for each slot
      */
     default void fill(@NotNull AbstractInventory inv, @NotNull Int2ObjectFunction<@NotNull ItemStack> filler) {
-        for (int i = 0; i < size(); i++) {
-            set(inv, i, filler.apply(i));
+        fill(inv, filler, WriteMode.ALWAYS);
+    }
+
+    /**
+     * Fills the provided inventory with items, following the same semantics as
+     * {@link #fill(AbstractInventory, Int2ObjectFunction)}, except for that slots may be skipped depending on the
+     * write mode. With {@link WriteMode#CHANGED}, redrawing an unchanged menu doesn't send anything to its viewers.
+     * @param inv the inventory to fill
+     * @param filler the function that provides items for each slot
+     * @param mode how to treat slots that already contain their item
+     */
+    default void fill(@NotNull AbstractInventory inv, @NotNull Int2ObjectFunction<@NotNull ItemStack> filler, @NotNull WriteMode mode) {
+        long start = ViewMetricsImpl.start();
+        ItemStack[] items = new ItemStack[size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = filler.apply(i);
         }
+        setRange(inv, 0, items.length, items, mode);
+        ViewMetricsImpl.end(ViewMetrics.Operation.FILL, this, start);
+    }
+
+    /**
+     * Fills the provided inventory with items, following the same semantics as
+     * {@link #fill(AbstractInventory, Int2ObjectFunction)}, except for that the filler is run in parallel on the common
+     * fork-join pool. Once every item has been provided, they're all set at once. This is only worth it when the filler
+     * is expensive, and the filler must be safe to call from multiple threads at once.
+     * @param inv the inventory to fill
+     * @param filler the function that provides items for each slot
+     */
+    default void parallelFill(@NotNull AbstractInventory inv, @NotNull Int2ObjectFunction<@NotNull ItemStack> filler) {
+        long start = ViewMetricsImpl.start();
+        ItemStack[] items = new ItemStack[size()];
+        IntStream.range(0, items.length).parallel().forEach(slot -> items[slot] = filler.apply(slot));
+        setRange(inv, 0, items.length, items);
+        ViewMetricsImpl.end(ViewMetrics.Operation.FILL, this, start);
     }
 
     /**
@@ -294,7 +809,16 @@ public interface InventoryView {
      * @param inv the inventory to clear
      */
     default void clear(@NotNull AbstractInventory inv) {
-        fill(inv, slot -> ItemStack.AIR);
+        clear(inv, WriteMode.ALWAYS);
+    }
+
+    /**
+     * Clears this inventory by setting each slot to air, skipping slots depending on the write mode.
+     * @param inv the inventory to clear
+     * @param mode how to treat slots that are already empty
+     */
+    default void clear(@NotNull AbstractInventory inv, @NotNull WriteMode mode) {
+        fill(inv, slot -> ItemStack.AIR, mode);
     }
 
     /**
@@ -306,10 +830,87 @@ public interface InventoryView {
      */
     default @NotNull List<@NotNull ItemStack> collect(@NotNull AbstractInventory inv) {
         ItemStack[] items = new ItemStack[size()];
-        for (int i = 0; i < size(); i++) {
-            items[i] = get(inv, i);
+        collectInto(inv, items, 0);
+        // The array isn't referenced anywhere else, so it doesn't need to be copied
+        return Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    /**
+     * Collects the items in the provided inventory into the provided array, without allocating a new one. The item at
+     * each local slot {@code i} is stored in {@code dest[offset + i]}.<br>
+     * Contiguous views, unions and compiled views (see {@link #compile()}) keep their resolved slots, so collecting
+     * them doesn't allocate at all; compile other views that are collected often.
+     * @param inv the source of the items
+     * @param dest the array to store the items in
+     * @param offset the index in the array to store the item at local slot {@code 0} in
+     * @throws IndexOutOfBoundsException if the array can't fit {@link #size()} items from the offset
+     */
+    default void collectInto(@NotNull AbstractInventory inv, @NotNull ItemStack @NotNull [] dest, int offset) {
+        final int size = size();
+        Objects.checkFromIndexSize(offset, size, dest.length);
+
+        long start = ViewMetricsImpl.start();
+        int[] externalSlots = InventoryViewImpl.resolve(this, 0, size);
+        InventoryViewImpl.read(lockStrategy(), inv, externalSlots, dest, offset);
+        ViewMetricsImpl.end(ViewMetrics.Operation.COLLECT, this, start);
+    }
+
+    /**
+     * Returns a stream of the items in the provided inventory, in the order of their local slot IDs. The stream reads
+     * each item when it's reached, without locking the inventory, and can be split along the structure of this view
+     * (e.g. the members of a union) when it's run in parallel.
+     * @param inv the source of the items
+     * @return a stream of the items in this view
+     */
+    default @NotNull Stream<@NotNull ItemStack> stream(@NotNull AbstractInventory inv) {
+        return slotStream().mapToObj(inv::getItemStack);
+    }
+
+    /**
+     * Returns a stream of the external slot IDs of this view, in the order of their local slot IDs, following the same
+     * semantics as {@link #externalSlots()}. The slots are converted when this is called, and the stream can be split
+     * along the structure of this view when it's run in parallel.
+     * @return a stream of the external slots of this view
+     */
+    default @NotNull IntStream slotStream() {
+        return StreamSupport.intStream(InventoryViewImpl.SlotSpliterator.of(this), false);
+    }
+
+    /**
+     * Creates a snapshot of the items in this view in the provided inventory. The snapshot can be refilled from any
+     * inventory later on without allocating, so it's worth keeping for views that are snapshotted frequently.
+     * @param inv the source of the items
+     * @return a snapshot of this view in the inventory
+     */
+    default @NotNull ViewSnapshot snapshot(@NotNull AbstractInventory inv) {
+        var snapshot = new ViewSnapshot(this);
+        snapshot.refill(inv);
+        return snapshot;
+    }
+
+    /**
+     * Finds the local slots of this view whose items in the provided inventory differ from the items in the provided
+     * snapshot, in ascending order. Items are compared by identity first, and then by {@link ItemStack#equals(Object)}.
+     * The slots are read while locked (see {@link #lockStrategy()}).
+     * @param inv the inventory to compare against the snapshot
+     * @param snapshot the snapshot to compare, which must have the same size as this view
+     * @return the changed local slots
+     */
+    default @NotNull IntList diff(@NotNull AbstractInventory inv, @NotNull ViewSnapshot snapshot) {
+        if (snapshot.size() != size()) {
+            throw new IllegalArgumentException("The snapshot must have the same size as the view!");
         }
-        return List.of(items);
+
+        int[] externalSlots = InventoryViewImpl.resolve(this, 0, size());
+        return LockStrategyImpl.lock(lockStrategy(), inv, externalSlots, () -> {
+            var changed = new IntArrayList();
+            for (int slot = 0; slot < externalSlots.length; slot++) {
+                if (!InventoryViewImpl.same(inv.getItemStack(externalSlots[slot]), snapshot.get(slot))) {
+                    changed.add(slot);
+                }
+            }
+            return changed;
+        });
     }
 
 }
\ No newline at end of file
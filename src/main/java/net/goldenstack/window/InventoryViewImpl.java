@@ -1,17 +1,892 @@
 package net.goldenstack.window;
 
 import it.unimi.dsi.fastutil.ints.*;
+import net.minestom.server.inventory.AbstractInventory;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.Material;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 class InventoryViewImpl {
 
+    // The views implemented by this library. Operations that convert many slots at once switch over these to use a
+    //  loop specialized for each shape, instead of calling localToExternal through the interface for each slot, which
+    //  is megamorphic on any real server. Views implemented elsewhere use the generic loop.
+    sealed interface BuiltIn extends InventoryView permits ContiguousFork, Joiner, Union, Arbitrary, Compiled, Locked, Reversed {}
+
+    static int @NotNull [] resolve(@NotNull InventoryView view, int @NotNull [] localSlots) {
+        int[] externalSlots = new int[localSlots.length];
+        switch (unwrapDelegates(view)) {
+            case ContiguousFork fork -> {
+                for (int i = 0; i < localSlots.length; i++) {
+                    externalSlots[i] = fork.localToExternal(localSlots[i]);
+                }
+            }
+            case Compiled compiled -> {
+                for (int i = 0; i < localSlots.length; i++) {
+                    externalSlots[i] = compiled.localToExternal(localSlots[i]);
+                }
+            }
+            case InventoryView other -> {
+                for (int i = 0; i < localSlots.length; i++) {
+                    externalSlots[i] = other.localToExternal(localSlots[i]);
+                }
+            }
+        }
+        return externalSlots;
+    }
+
+    // The returned array must not be modified, as it may be shared with the view: whole contiguous views and unions
+    //  keep their resolved slots (see SlotTable), and compiled views are a table already. Anything that could expose it
+    //  outside of this package has to copy it, e.g. InventoryView#externalSlots and LockStrategyImpl#lock.
+    static int @NotNull [] resolve(@NotNull InventoryView view, int localMin, int localMax) {
+        final int size = view.size();
+        if (localMin < 0 || localMax > size || localMin > localMax) {
+            return resolveGeneric(view, localMin, localMax);
+        }
+
+        var target = unwrapDelegates(view);
+        if (localMin == 0 && localMax == size) {
+            switch (target) {
+                case ContiguousFork fork -> {
+                    return fork.table().get(fork);
+                }
+                case Union union -> {
+                    return union.table().get(union);
+                }
+                case Compiled compiled -> {
+                    return compiled.localToExternal();
+                }
+                case Locked locked -> {
+                    return resolve(locked.base(), 0, size);
+                }
+                default -> {}
+            }
+        }
+        return resolveUncached(target, localMin, localMax);
+    }
+
+    // The external slots of a whole view, resolved the first time that they're needed and then kept on the view, as
+    //  whole-view operations (e.g. add and collectInto) need them on every call. They're derived entirely from the view,
+    //  so views exclude their table from equality. Threads that race to resolve it get equal arrays, so it's harmless.
+    static final class SlotTable {
+
+        private volatile int[] slots;
+
+        int @NotNull [] get(@NotNull InventoryView view) {
+            int[] slots = this.slots;
+            if (slots == null) {
+                this.slots = slots = resolveUncached(view, 0, view.size());
+            }
+            return slots;
+        }
+
+        @Override
+        public String toString() {
+            return "SlotTable";
+        }
+    }
+
+    private static int @NotNull [] resolveUncached(@NotNull InventoryView view, int localMin, int localMax) {
+        final int size = view.size();
+        return switch (view) {
+            case ContiguousFork fork -> {
+                int[] externalSlots = new int[localMax - localMin];
+                for (int i = 0; i < externalSlots.length; i++) {
+                    externalSlots[i] = fork.min() + localMin + i;
+                }
+                yield externalSlots;
+            }
+            case Compiled compiled -> localMin == 0 && localMax == size
+                    ? compiled.localToExternal()
+                    : Arrays.copyOfRange(compiled.localToExternal(), localMin, localMax);
+            case Reversed(InventoryView base) -> {
+                int[] baseSlots = resolve(base, size - localMax, size - localMin);
+                int[] externalSlots = new int[baseSlots.length];
+                for (int i = 0; i < externalSlots.length; i++) {
+                    externalSlots[i] = baseSlots[baseSlots.length - 1 - i];
+                }
+                yield externalSlots;
+            }
+            case Locked locked -> resolve(locked.base(), localMin, localMax);
+            case Union union -> {
+                int[] externalSlots = new int[localMax - localMin];
+                int[] offsets = union.offsets();
+                for (int member = 0; member < union.views().size(); member++) {
+                    int start = Math.max(localMin, offsets[member]), end = Math.min(localMax, offsets[member + 1]);
+                    if (start < end) {
+                        int[] memberSlots = resolve(union.views().get(member), start - offsets[member], end - offsets[member]);
+                        System.arraycopy(memberSlots, 0, externalSlots, start - localMin, memberSlots.length);
+                    }
+                }
+                yield externalSlots;
+            }
+            case Joiner(InventoryView parent, InventoryView child) -> {
+                int[] parentSlots = resolve(parent, 0, parent.size());
+                int[] externalSlots = resolve(child, localMin, localMax).clone();
+                for (int i = 0; i < externalSlots.length; i++) {
+                    int parentLocal = externalSlots[i];
+                    externalSlots[i] = parent.isValidLocal(parentLocal) ? parentSlots[parentLocal] : -1;
+                }
+                yield externalSlots;
+            }
+            case Arbitrary arbitrary -> {
+                if (localMin == 0 && localMax == size) {
+                    yield arbitrary.externalSlots();
+                }
+                int[] externalSlots = new int[localMax - localMin];
+                for (int i = 0; i < externalSlots.length; i++) {
+                    externalSlots[i] = arbitrary.localToExternal(localMin + i);
+                }
+                yield externalSlots;
+            }
+            case InventoryView other -> resolveGeneric(other, localMin, localMax);
+        };
+    }
+
+    private static int @NotNull [] resolveGeneric(@NotNull InventoryView view, int localMin, int localMax) {
+        if (localMin == 0 && localMax == view.size()) {
+            return view.externalSlots();
+        }
+
+        int[] externalSlots = new int[localMax - localMin];
+        for (int i = 0; i < externalSlots.length; i++) {
+            externalSlots[i] = view.localToExternal(localMin + i);
+        }
+        return externalSlots;
+    }
+
+    // Converts a single slot, skipping the interface call for the shapes that most single-slot operations use
+    static int localToExternal(@NotNull InventoryView view, int localSlot) {
+        var target = unwrapDelegates(view);
+        if (target instanceof ContiguousFork fork) {
+            return fork.localToExternal(localSlot);
+        } else if (target instanceof Compiled compiled) {
+            return compiled.localToExternal(localSlot);
+        }
+        return target.localToExternal(localSlot);
+    }
+
+    // Delegates in Views have exactly the same mapping as the views that they wrap
+    private static @NotNull InventoryView unwrapDelegates(@NotNull InventoryView view) {
+        while (view instanceof ViewsImpl.Layout layout) {
+            view = layout.view();
+        }
+        return view;
+    }
+
+    // Each thread reuses one reader to avoid allocating a new capturing lambda for each read; reading never calls back
+    //  into views, so a thread can't be using its reader for two reads at once
+    private static final ThreadLocal<SlotReader> READERS = ThreadLocal.withInitial(SlotReader::new);
+
+    static void read(@NotNull LockStrategy strategy, @NotNull AbstractInventory inv,
+                     int @NotNull [] externalSlots, @NotNull ItemStack @NotNull [] out, int offset) {
+        var reader = READERS.get();
+        reader.inv = inv;
+        reader.externalSlots = externalSlots;
+        reader.out = out;
+        reader.offset = offset;
+        try {
+            LockStrategyImpl.lock(strategy, inv, externalSlots, reader);
+        } finally {
+            reader.inv = null;
+            reader.externalSlots = null;
+            reader.out = null;
+        }
+    }
+
+    private static final class SlotReader implements Supplier<Void> {
+
+        private AbstractInventory inv;
+        private int[] externalSlots;
+        private ItemStack[] out;
+        private int offset;
+
+        @Override
+        public Void get() {
+            for (int i = 0; i < externalSlots.length; i++) {
+                out[offset + i] = inv.getItemStack(externalSlots[i]);
+            }
+            return null;
+        }
+    }
+
+    static void write(@NotNull InventoryView view, @NotNull AbstractInventory inv,
+                      int @NotNull [] externalSlots, @NotNull ItemStack @NotNull [] items,
+                      @NotNull InventoryView.WriteMode mode) {
+        var event = new ViewEvents.BulkWrite();
+        event.begin();
+
+        boolean elide = mode == InventoryView.WriteMode.CHANGED;
+        int written = LockStrategyImpl.lock(view.lockStrategy(), inv, externalSlots, () -> {
+            int count = 0;
+            for (int i = 0; i < externalSlots.length; i++) {
+                if (elide && same(inv.getItemStack(externalSlots[i]), items[i])) {
+                    continue;
+                }
+                inv.setItemStack(externalSlots[i], items[i]);
+                count++;
+            }
+            return count;
+        });
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.view = ViewMetricsImpl.nameOf(view);
+            event.slots = externalSlots.length;
+            event.written = written;
+            event.commit();
+        }
+    }
+
+    // Identity is checked separately since it's by far the most common case for unchanged slots (e.g. AIR)
+    static boolean same(@NotNull ItemStack current, @NotNull ItemStack item) {
+        return current == item || current.equals(item);
+    }
+
+    // Normalization applied by the factory methods in InventoryView, collapsing trees into the shallowest equivalent
+    //  view when it's known to be equivalent. Views with a lock strategy other than the global one are wrapped again
+    //  after simplifying so that they keep it, as it isn't part of the mapping.
+
+    static @NotNull InventoryView arbitrary(int @NotNull [] externalSlots) {
+        if (externalSlots.length > 0 && isConsecutive(externalSlots)) {
+            return new ContiguousFork(externalSlots[0], externalSlots[0] + externalSlots.length);
+        }
+        return new Arbitrary(new IntImmutableList(externalSlots));
+    }
+
+    static @NotNull InventoryView join(@NotNull InventoryView parent, @NotNull InventoryView child) {
+        if (child.size() > parent.size()) {
+            throw new IllegalArgumentException("Children cannot be larger than their parents!");
+        }
+
+        if (parent instanceof Joiner joiner) {
+            // Joining is associative, and the child may be able to collapse into the inner child
+            return join(joiner.parent(), join(joiner.child(), child));
+        }
+
+        var flatParent = unwrap(parent);
+        var flatChild = unwrap(child);
+
+        // Forking the entire parent is the parent itself
+        if (flatChild instanceof ContiguousFork range && range.min() == 0 && range.max() == parent.size()) {
+            return parent;
+        }
+
+        if (!isFlat(flatParent) || !(flatChild instanceof ContiguousFork || flatChild instanceof Arbitrary)) {
+            return new Joiner(parent, child);
+        }
+
+        if (flatParent instanceof ContiguousFork outer && flatChild instanceof ContiguousFork inner) {
+            if (inner.max() > outer.size()) {
+                return new Joiner(parent, child);
+            }
+            return inherit(new ContiguousFork(outer.min() + inner.min(), outer.min() + inner.max()), parent);
+        }
+
+        int[] slots = new int[flatChild.size()];
+        for (int i = 0; i < slots.length; i++) {
+            int middle = flatChild.localToExternal(i);
+            if (!flatParent.isValidLocal(middle)) {
+                return new Joiner(parent, child);
+            }
+            slots[i] = flatParent.localToExternal(middle);
+        }
+        return inherit(arbitrary(slots), parent);
+    }
+
+    static @NotNull InventoryView.Singular join(@NotNull InventoryView parent, @NotNull InventoryView.Singular child) {
+        if (child.size() > parent.size()) {
+            throw new IllegalArgumentException("Children cannot be larger than their parents!");
+        }
+
+        // A single slot of anything is always just that slot
+        if (child.size() == 1 && child.isValidLocal(0)) {
+            int middle = child.localToExternal(0);
+            if (parent.isValidLocal(middle)) {
+                return (InventoryView.Singular) inherit(new ContiguousFork(parent.localToExternal(middle), parent.localToExternal(middle) + 1), parent);
+            }
+        }
+        return new Joiner(parent, child);
+    }
+
+    static @NotNull InventoryView reversed(@NotNull InventoryView base) {
+        if (base instanceof Reversed reversed) {
+            return reversed.base();
+        } else if (base.size() <= 1) {
+            return base; // The reverse of a singular (or empty) view is itself
+        }
+        return new Reversed(base);
+    }
+
+    static @NotNull InventoryView union(@NotNull List<InventoryView> views) {
+        List<InventoryView> members = new ArrayList<>();
+        for (var view : views) {
+            addUnionMember(members, view);
+        }
+
+        return members.size() == 1 ? members.get(0) : new Union(members);
+    }
+
+    // Nested unions are flattened, empty views are dropped, and adjacent contiguous views are merged. None of these
+    //  change which view is the first valid one for any slot.
+    private static void addUnionMember(@NotNull List<InventoryView> members, @NotNull InventoryView view) {
+        if (view instanceof Union union) {
+            for (var member : union.views()) {
+                addUnionMember(members, member);
+            }
+            return;
+        } else if (view.size() == 0) {
+            return;
+        }
+
+        if (!members.isEmpty() && members.get(members.size() - 1) instanceof ContiguousFork last
+                && view instanceof ContiguousFork next && last.max() == next.min()) {
+            members.set(members.size() - 1, new ContiguousFork(last.min(), next.max()));
+            return;
+        }
+        members.add(view);
+    }
+
+    // Lock strategies are restored via inherit(), so they can be ignored while simplifying
+    static @NotNull InventoryView unwrap(@NotNull InventoryView view) {
+        while (true) {
+            if (view instanceof ViewsImpl.Layout layout) {
+                view = layout.view();
+            } else if (view instanceof Locked locked) {
+                view = locked.base();
+            } else {
+                return view;
+            }
+        }
+    }
+
+    private static boolean isFlat(@NotNull InventoryView view) {
+        return view instanceof ContiguousFork || view instanceof Arbitrary || view instanceof Compiled;
+    }
+
+    private static boolean isConsecutive(int @NotNull [] slots) {
+        for (int i = 1; i < slots.length; i++) {
+            if (slots[i] != slots[i - 1] + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static @NotNull InventoryView inherit(@NotNull InventoryView view, @NotNull InventoryView source) {
+        var strategy = source.lockStrategy();
+        return strategy == LockStrategy.global() ? view : new Locked(view, strategy);
+    }
+
+    // Splits the external slots of a view, preferring to split at the boundaries between the parts of the view (e.g.
+    //  union members) that are closest to the middle, and otherwise splitting in half
+    static final class SlotSpliterator implements Spliterator.OfInt {
+
+        private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+
+        private final int[] slots;
+        private final int[] boundaries;
+        private int index;
+        private final int fence;
+
+        private SlotSpliterator(int @NotNull [] slots, int @NotNull [] boundaries, int index, int fence) {
+            this.slots = slots;
+            this.boundaries = boundaries;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        static @NotNull SlotSpliterator of(@NotNull InventoryView view) {
+            return new SlotSpliterator(view.externalSlots(), boundaries(view), 0, view.size());
+        }
+
+        // Returns the sorted local slots at which the parts of the view start
+        private static int @NotNull [] boundaries(@NotNull InventoryView view) {
+            while (view instanceof ViewsImpl.Layout layout) {
+                view = layout.view();
+            }
+            return switch (view) {
+                case Union union -> union.offsets();
+                case Arbitrary arbitrary when arbitrary.encoding() instanceof Arbitrary.Runs runs -> runs.localStarts();
+                default -> new int[0];
+            };
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int size = fence - index;
+            if (size < 2) {
+                return null;
+            }
+
+            int middle = index + size / 2;
+            int split = middle;
+
+            // Find the closest boundary to the middle that's strictly inside the range
+            int search = Arrays.binarySearch(boundaries, middle);
+            int insertion = search >= 0 ? search : -search - 1;
+            int best = Integer.MAX_VALUE;
+            for (int i = Math.max(0, insertion - 1); i <= Math.min(boundaries.length - 1, insertion); i++) {
+                int boundary = boundaries[i];
+                if (boundary > index && boundary < fence && Math.abs(boundary - middle) < best) {
+                    best = Math.abs(boundary - middle);
+                    split = boundary;
+                }
+            }
+
+            var prefix = new SlotSpliterator(slots, boundaries, index, split);
+            index = split;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull IntConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(slots[index++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(@NotNull IntConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(slots[index]);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    // Adds a single item, reading each slot only when it's reached and returning as soon as the item is used up, so an
+    //  item that fits into an early slot doesn't read the rest of the view. Slots are written immediately, so repeated
+    //  external slots see the earlier writes. Materials are compared before ItemStack#isSimilar to reject most slots.
+    static @NotNull ItemStack addOne(@NotNull AbstractInventory inv, @NotNull InventoryView view,
+                                     int @NotNull [] externalSlots, @NotNull ItemStack item) {
+        final Material material = item.material();
+        for (int slot : externalSlots) {
+            if (slot < 0) {
+                continue;
+            }
+
+            var get = inv.getItemStack(slot);
+            if (get.material() != material || get.amount() >= get.maxStackSize() || !item.isSimilar(get)) {
+                continue;
+            }
+
+            var total = item.amount() + get.amount();
+            if (total <= item.maxStackSize()) {
+                inv.setItemStack(slot, get.withAmount(total));
+                return ItemStack.AIR;
+            } else {
+                inv.setItemStack(slot, get.withAmount(get.maxStackSize()));
+                item = item.withAmount(total - get.maxStackSize());
+            }
+        }
+
+        // The index is only a hint, as it's updated after slots are written; its candidates are checked first, and if
+        //  none of them are empty every slot is checked, so a stale index can never make the view seem full
+        var index = InventoryIndex.get(inv);
+        if (index != null) {
+            for (int local = index.nextEmpty(view, 0); local != -1 && local < externalSlots.length; local = index.nextEmpty(view, local + 1)) {
+                if (place(inv, externalSlots[local], item)) {
+                    return ItemStack.AIR;
+                }
+            }
+        }
+        for (int slot : externalSlots) {
+            if (place(inv, slot, item)) {
+                return ItemStack.AIR;
+            }
+        }
+
+        return item;
+    }
+
+    private static boolean place(@NotNull AbstractInventory inv, int slot, @NotNull ItemStack item) {
+        if (slot < 0 || !inv.getItemStack(slot).isAir()) {
+            return false;
+        }
+        inv.setItemStack(slot, item);
+        return true;
+    }
+
+    // Plans the result of adding items to a view, working on a copy of its contents and only writing changed slots.
+    // Non-empty slots are grouped by material, which is a cheap way to skip most of the slots that can't be similar
+    //  before checking ItemStack#isSimilar, and each group is kept in slot order so that merging order is unchanged.
+    // If the inventory is indexed, groups are only loaded (from the index) when needed, and so are the slots' contents;
+    //  empty slots are looked for through the index's bitmap of empty slots first, too.
+    //
+    // Slots are planned by external slot, so a view that repeats an external slot (e.g. a union of overlapping views)
+    //  only stages and writes it once. Local slots then don't correspond to planned slots, so the index isn't used.
+    static final class AddPlan {
+
+        private final AbstractInventory inv;
+        private final InventoryView view;
+        private final int[] externalSlots;
+        private final InventoryIndex index;
+
+        private final ItemStack[] contents;
+        private final boolean[] changed;
+        private final Map<Material, IntArrayList> slotsByMaterial = new HashMap<>();
+        private boolean hinted;
+        private int firstEmpty = 0;
+        private int scanned = 0;
+
+        AddPlan(@NotNull AbstractInventory inv, @NotNull InventoryView view, int @NotNull [] externalSlots) {
+            int[] distinct = distinct(externalSlots);
+
+            this.inv = inv;
+            this.view = view;
+            this.externalSlots = distinct;
+            this.index = distinct == externalSlots ? InventoryIndex.get(inv) : null;
+            if (index != null) {
+                int first = index.nextEmpty(view, 0);
+                this.hinted = true;
+                this.firstEmpty = first != -1 ? first : distinct.length;
+            }
+
+            this.contents = new ItemStack[distinct.length];
+            this.changed = new boolean[distinct.length];
+
+            if (index == null) {
+                for (int slot = 0; slot < distinct.length; slot++) {
+                    var item = item(slot);
+                    if (!item.isAir()) {
+                        slotsByMaterial.computeIfAbsent(item.material(), material -> new IntArrayList()).add(slot);
+                    }
+                }
+            }
+        }
+
+        // Returns the provided slots if they're all valid and distinct, and otherwise a copy of them without invalid or
+        //  repeated slots, keeping the first occurrence of each
+        static int @NotNull [] distinct(int @NotNull [] externalSlots) {
+            var seen = new BitSet();
+            int distinct = 0;
+            for (int slot : externalSlots) {
+                if (slot >= 0 && !seen.get(slot)) {
+                    seen.set(slot);
+                    distinct++;
+                }
+            }
+            if (distinct == externalSlots.length) {
+                return externalSlots;
+            }
+
+            seen.clear();
+            int[] slots = new int[distinct];
+            int next = 0;
+            for (int slot : externalSlots) {
+                if (slot >= 0 && !seen.get(slot)) {
+                    seen.set(slot);
+                    slots[next++] = slot;
+                }
+            }
+            return slots;
+        }
+
+        private @NotNull ItemStack item(int slot) {
+            var item = contents[slot];
+            if (item == null) {
+                contents[slot] = item = inv.getItemStack(externalSlots[slot]);
+            }
+            return item;
+        }
+
+        private @NotNull IntArrayList similarSlots(@NotNull Material material) {
+            var slots = slotsByMaterial.get(material);
+            if (slots == null) {
+                slots = index != null ? index.localSlots(view, material) : new IntArrayList();
+                slotsByMaterial.put(material, slots);
+            }
+            return slots;
+        }
+
+        @NotNull ItemStack add(@NotNull ItemStack item) {
+            if (item.isAir()) {
+                return ItemStack.AIR;
+            }
+
+            var similar = similarSlots(item.material());
+            for (int i = 0; i < similar.size(); i++) {
+                int slot = similar.getInt(i);
+                var get = item(slot);
+                if (get.amount() >= get.maxStackSize() || !item.isSimilar(get)) {
+                    continue;
+                }
+
+                var total = item.amount() + get.amount();
+                if (total <= item.maxStackSize()) {
+                    set(slot, get.withAmount(total));
+                    return ItemStack.AIR;
+                } else {
+                    set(slot, get.withAmount(get.maxStackSize()));
+                    item = item.withAmount(total - get.maxStackSize());
+                }
+            }
+
+            int slot = firstEmpty();
+            if (slot < contents.length) {
+                set(slot, item);
+
+                var group = similarSlots(item.material());
+                int index = Arrays.binarySearch(group.elements(), 0, group.size(), slot);
+                group.add(-index - 1, slot);
+                return ItemStack.AIR;
+            }
+
+            return item;
+        }
+
+        // Slots are never emptied while planning, so both searches only move forwards. The index is only a hint, as
+        //  it's updated after slots are written, so once it has no more candidates every slot is checked instead;
+        //  a stale index can then never make the view seem full.
+        private int firstEmpty() {
+            if (hinted) {
+                while (firstEmpty < contents.length && !item(firstEmpty).isAir()) {
+                    int next = index.nextEmpty(view, firstEmpty + 1);
+                    firstEmpty = next != -1 ? next : contents.length;
+                }
+                if (firstEmpty < contents.length) {
+                    return firstEmpty;
+                }
+                hinted = false;
+            }
+
+            while (scanned < contents.length && !item(scanned).isAir()) {
+                scanned++;
+            }
+            return scanned;
+        }
+
+        private void set(int slot, @NotNull ItemStack item) {
+            contents[slot] = item;
+            changed[slot] = true;
+        }
+
+        void apply() {
+            for (int slot = 0; slot < contents.length; slot++) {
+                if (changed[slot]) {
+                    inv.setItemStack(externalSlots[slot], contents[slot]);
+                }
+            }
+        }
+    }
+
+    // Locks both inventories in a consistent order (see LockStrategyImpl#order), so that two transfers in opposite
+    //  directions can't deadlock. Views of the same inventory are locked at once, so they must share a strategy, as two
+    //  different strategies couldn't be ordered.
+    static @NotNull InventoryView.TransferResult transfer(@NotNull AbstractInventory srcInv, @NotNull InventoryView srcView,
+                                                         @NotNull AbstractInventory dstInv, @NotNull InventoryView dstView,
+                                                         @NotNull Predicate<@NotNull ItemStack> predicate) {
+        // Each source slot is only moved once, even if the source view repeats it; the destination is deduplicated by
+        //  AddPlan, which needs the unchanged slots of the view
+        int[] srcSlots = AddPlan.distinct(resolve(srcView, 0, srcView.size()));
+        int[] dstSlots = resolve(dstView, 0, dstView.size());
+
+        if (srcInv == dstInv) {
+            var used = new BitSet();
+            for (int slot : srcSlots) {
+                used.set(slot);
+            }
+            for (int slot : dstSlots) {
+                if (slot >= 0 && used.get(slot)) {
+                    throw new IllegalArgumentException("The source and destination views must not share any slots!");
+                }
+            }
+
+            var strategy = LockStrategyImpl.target(srcView.lockStrategy());
+            if (!strategy.equals(LockStrategyImpl.target(dstView.lockStrategy()))) {
+                throw new IllegalArgumentException("The source and destination views must use the same lock strategy if they're in the same inventory!");
+            }
+
+            int[] allSlots = Arrays.copyOf(srcSlots, srcSlots.length + dstSlots.length);
+            System.arraycopy(dstSlots, 0, allSlots, srcSlots.length, dstSlots.length);
+            return LockStrategyImpl.lock(strategy, srcInv, allSlots,
+                    () -> transferLocked(srcInv, srcSlots, dstInv, dstView, dstSlots, predicate));
+        }
+
+        Supplier<InventoryView.TransferResult> action = () -> transferLocked(srcInv, srcSlots, dstInv, dstView, dstSlots, predicate);
+        if (LockStrategyImpl.order(srcInv) < LockStrategyImpl.order(dstInv)) {
+            return LockStrategyImpl.lock(srcView.lockStrategy(), srcInv, srcSlots,
+                    () -> LockStrategyImpl.lock(dstView.lockStrategy(), dstInv, dstSlots, action));
+        } else {
+            return LockStrategyImpl.lock(dstView.lockStrategy(), dstInv, dstSlots,
+                    () -> LockStrategyImpl.lock(srcView.lockStrategy(), srcInv, srcSlots, action));
+        }
+    }
+
+    // Plans every addition to the destination before writing anything, so the destination is only scanned once
+    private static @NotNull InventoryView.TransferResult transferLocked(@NotNull AbstractInventory srcInv, int @NotNull [] srcSlots,
+                                                                       @NotNull AbstractInventory dstInv, @NotNull InventoryView dstView,
+                                                                       int @NotNull [] dstSlots, @NotNull Predicate<@NotNull ItemStack> predicate) {
+        var plan = new AddPlan(dstInv, dstView, dstSlots);
+        var remainders = new ItemStack[srcSlots.length];
+
+        int slots = 0;
+        int moved = 0;
+        int remaining = 0;
+        for (int i = 0; i < srcSlots.length; i++) {
+            var item = srcInv.getItemStack(srcSlots[i]);
+            if (item.isAir() || !predicate.test(item)) {
+                continue;
+            }
+
+            var remainder = plan.add(item);
+            int amount = remainder.isAir() ? 0 : remainder.amount();
+            if (amount != item.amount()) {
+                remainders[i] = remainder;
+                slots++;
+                moved += item.amount() - amount;
+            }
+            remaining += amount;
+        }
+
+        plan.apply();
+        for (int i = 0; i < srcSlots.length; i++) {
+            if (remainders[i] != null) {
+                srcInv.setItemStack(srcSlots[i], remainders[i]);
+            }
+        }
+        return new InventoryView.TransferResult(slots, moved, remaining);
+    }
+
+    // Optimistic transaction over a view: the action runs on a copy of the view's slots without holding the lock, and
+    //  committing verifies (by identity, as items are immutable) that no slot it touched was changed in the meantime.
+    static final class StagedTransaction implements InventoryView.Transaction {
+
+        private static final int OPTIMISTIC_ATTEMPTS = 8;
+
+        private final ItemStack[] snapshot;
+        private final ItemStack[] staged;
+        private final boolean[] touched;
+
+        private StagedTransaction(@NotNull ItemStack @NotNull [] snapshot) {
+            this.snapshot = snapshot;
+            this.staged = snapshot.clone();
+            this.touched = new boolean[snapshot.length];
+        }
+
+        static void run(@NotNull InventoryView view, @NotNull AbstractInventory inv,
+                        @NotNull Consumer<InventoryView.Transaction> action) {
+            var strategy = view.lockStrategy();
+            int[] externalSlots = resolve(view, 0, view.size());
+
+            var event = new ViewEvents.Transaction();
+            event.begin();
+
+            for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+                ItemStack[] snapshot = new ItemStack[externalSlots.length];
+                read(strategy, inv, externalSlots, snapshot, 0);
+
+                var transaction = new StagedTransaction(snapshot);
+                action.accept(transaction);
+
+                boolean committed = LockStrategyImpl.lock(strategy, inv, externalSlots, () -> {
+                    if (!transaction.isCurrent(inv, externalSlots)) {
+                        return false;
+                    }
+                    transaction.commit(inv, externalSlots);
+                    return true;
+                });
+                if (committed) {
+                    commitEvent(event, view, externalSlots.length, attempt + 1, false);
+                    return;
+                }
+            }
+
+            // Too much contention, so just hold the lock for the entire transaction
+            LockStrategyImpl.lock(strategy, inv, externalSlots, () -> {
+                ItemStack[] snapshot = new ItemStack[externalSlots.length];
+                for (int i = 0; i < externalSlots.length; i++) {
+                    snapshot[i] = inv.getItemStack(externalSlots[i]);
+                }
+
+                var transaction = new StagedTransaction(snapshot);
+                action.accept(transaction);
+                transaction.commit(inv, externalSlots);
+                return null;
+            });
+            commitEvent(event, view, externalSlots.length, OPTIMISTIC_ATTEMPTS + 1, true);
+        }
+
+        private static void commitEvent(@NotNull ViewEvents.Transaction event, @NotNull InventoryView view,
+                                        int slots, int attempts, boolean pessimistic) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.view = ViewMetricsImpl.nameOf(view);
+                event.slots = slots;
+                event.attempts = attempts;
+                event.pessimistic = pessimistic;
+                event.commit();
+            }
+        }
+
+        private boolean isCurrent(@NotNull AbstractInventory inv, int @NotNull [] externalSlots) {
+            for (int i = 0; i < externalSlots.length; i++) {
+                if (touched[i] && inv.getItemStack(externalSlots[i]) != snapshot[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void commit(@NotNull AbstractInventory inv, int @NotNull [] externalSlots) {
+            for (int i = 0; i < externalSlots.length; i++) {
+                if (staged[i] != snapshot[i]) {
+                    inv.setItemStack(externalSlots[i], staged[i]);
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return staged.length;
+        }
+
+        @Override
+        public @NotNull ItemStack get(int localSlot) {
+            Objects.checkIndex(localSlot, staged.length);
+            touched[localSlot] = true;
+            return staged[localSlot];
+        }
+
+        @Override
+        public void set(int localSlot, @NotNull ItemStack item) {
+            Objects.checkIndex(localSlot, staged.length);
+            touched[localSlot] = true;
+            staged[localSlot] = item;
+        }
+    }
+
     // Implements InventoryView.Singular so that it can be treated as it when needed
     //  (i.e. when we know that it must be singular, and so code duplication can be avoided)
     // This is safe because implementing Singular doesn't actually have any side effects; it just adds utility methods.
     //  (if Singular ever gets any actual side effects, this needs to be changed)
-    record ContiguousFork(int min, int max) implements InventoryView.Singular {
+    record ContiguousFork(int min, int max, @NotNull SlotTable table) implements InventoryView.Singular, BuiltIn {
 
         ContiguousFork {
             if (min < 0 || max < 0) {
@@ -21,6 +896,10 @@ class InventoryViewImpl {
             }
         }
 
+        ContiguousFork(int min, int max) {
+            this(min, max, new SlotTable());
+        }
+
         @Override
         public int size() {
             return max - min;
@@ -35,16 +914,39 @@ class InventoryViewImpl {
         }
 
         @Override
-        public int externalToLocal(int externalSlot) {
-            if (!isValidExternal(externalSlot)) {
-                return -1;
-            }
-            return externalSlot - min;
+        public int externalToLocal(int externalSlot) {
+            if (!isValidExternal(externalSlot)) {
+                return -1;
+            }
+            return externalSlot - min;
+        }
+
+        @Override
+        public boolean isValidExternal(int externalSlot) {
+            return externalSlot >= min && externalSlot < max;
+        }
+
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            for (int slot = min; slot < max; slot++) {
+                action.accept(slot - min, slot);
+            }
+        }
+
+        // The table is derived entirely from the bounds, so it's excluded here
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ContiguousFork fork && min == fork.min && max == fork.max;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * min + max;
         }
 
         @Override
-        public boolean isValidExternal(int externalSlot) {
-            return externalSlot >= min && externalSlot < max;
+        public String toString() {
+            return "ContiguousFork[min=" + min + ", max=" + max + "]";
         }
     }
 
@@ -53,7 +955,7 @@ class InventoryViewImpl {
     //  (i.e. when we know that it must be singular, and so code duplication can be avoided)
     // This is safe because implementing Singular doesn't actually have any side effects; it just adds utility methods.
     //  (if Singular ever gets any actual side effects, this needs to be changed)
-    record Joiner(@NotNull InventoryView parent, @NotNull InventoryView child) implements InventoryView.Singular {
+    record Joiner(@NotNull InventoryView parent, @NotNull InventoryView child) implements InventoryView.Singular, BuiltIn {
 
         Joiner {
             if (child.size() > parent.size()) {
@@ -99,27 +1001,90 @@ class InventoryViewImpl {
         public boolean isValidExternal(int externalSlot) {
             return parent.isValidExternal(externalSlot) && child.isValidExternal(parent.externalToLocal(externalSlot));
         }
+
+        @Override
+        public @NotNull LockStrategy lockStrategy() {
+            return parent.lockStrategy();
+        }
+
+        // Converts all of the parent's slots at once, instead of walking through it for each slot
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            int[] parentSlots = parent.externalSlots();
+            child.forEachSlot((localSlot, middleSlot) -> action.accept(localSlot,
+                    middleSlot >= 0 && middleSlot < parentSlots.length ? parentSlots[middleSlot] : -1));
+        }
     }
 
-    record Union(@NotNull List<InventoryView> views) implements InventoryView.Singular {
+    // Precomputes the offset of each child and an external->local index so that conversions don't iterate children.
+    // Offsets has one more entry than there are views, with the last entry being the total size.
+    // The index is built from the slots that each view maps to, which only matches isValidExternal/externalToLocal for
+    //  views built here; if any view (or a view that one wraps) is implemented elsewhere, there's no index, and each
+    //  view is asked in turn instead.
+    record Union(@NotNull List<InventoryView> views, int @NotNull [] offsets, @Nullable Int2IntMap externalToLocal,
+                 @NotNull SlotTable table) implements InventoryView.Singular, BuiltIn {
+
+        Union(@NotNull List<InventoryView> views) {
+            this(views, offsets(views), index(views), new SlotTable());
+        }
+
+        private static int @NotNull [] offsets(@NotNull List<InventoryView> views) {
+            int[] offsets = new int[views.size() + 1];
+            for (int i = 0; i < views.size(); i++) {
+                offsets[i + 1] = offsets[i] + views.get(i).size();
+            }
+            return offsets;
+        }
+
+        private static @Nullable Int2IntMap index(@NotNull List<InventoryView> views) {
+            for (var view : views) {
+                if (!indexable(view)) {
+                    return null;
+                }
+            }
+
+            var map = new Int2IntOpenHashMap();
+            map.defaultReturnValue(-1);
+
+            int offset = 0;
+            for (var view : views) {
+                final int size = view.size();
+                for (int slot = 0; slot < size; slot++) {
+                    int external = view.localToExternal(slot);
+                    // Only the first valid view for each slot is used, so don't overwrite existing entries
+                    if (view.isValidExternal(external) && !map.containsKey(external)) {
+                        map.put(external, offset + view.externalToLocal(external));
+                    }
+                }
+                offset += size;
+            }
+            return map;
+        }
+
+        private static boolean indexable(@NotNull InventoryView view) {
+            return switch (unwrapDelegates(view)) {
+                case ContiguousFork fork -> true;
+                case Arbitrary arbitrary -> true;
+                case Compiled compiled -> true;
+                case Union union -> union.externalToLocal() != null;
+                case Joiner joiner -> indexable(joiner.parent()) && indexable(joiner.child());
+                case Locked locked -> indexable(locked.base());
+                case Reversed reversed -> indexable(reversed.base());
+                default -> false;
+            };
+        }
 
         Union {
             views = List.copyOf(views);
+            // Yes, this doesn't guarantee immutability, but it's close enough as we can control API usages anyway.
+            if (externalToLocal != null) {
+                externalToLocal = Int2IntMaps.unmodifiable(externalToLocal);
+            }
         }
 
         @Override
         public int size() {
-            return switch(views.size()) {
-                case 0 -> 0;
-                case 1 -> views.get(0).size();
-                default -> {
-                    int sum = 0;
-                    for (var view : views) {
-                        sum += view.size();
-                    }
-                    yield sum;
-                }
-            };
+            return offsets[offsets.length - 1];
         }
 
         @Override
@@ -127,31 +1092,43 @@ class InventoryViewImpl {
             if (!isValidLocal(localSlot)) {
                 return -1;
             }
-            for (var view : views) {
-                if (localSlot < view.size()) {
-                    return view.localToExternal(localSlot);
+
+            // Find the first offset that's greater than the slot; the view before it must contain the slot.
+            // Empty views share their offset with the next view, so they're skipped over naturally.
+            int low = 1, high = offsets.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (offsets[mid] > localSlot) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
                 }
-                localSlot -= view.size();
             }
-            // this code should never be run because, at this point, `slot >= size()`
-            // must be true, but we already verified that it's false at the start.
-            return -1;
+
+            return views.get(low - 1).localToExternal(localSlot - offsets[low - 1]);
         }
 
         @Override
         public int externalToLocal(int externalSlot) {
-            int offset = 0;
-            for (var view : views) {
+            if (externalToLocal != null) {
+                return externalToLocal.get(externalSlot);
+            }
+
+            for (int i = 0; i < views.size(); i++) {
+                var view = views.get(i);
                 if (view.isValidExternal(externalSlot)) {
-                    return offset + view.externalToLocal(externalSlot);
+                    return offsets[i] + view.externalToLocal(externalSlot);
                 }
-                offset += view.size();
             }
             return -1;
         }
 
         @Override
         public boolean isValidExternal(int externalSlot) {
+            if (externalToLocal != null) {
+                return externalToLocal.containsKey(externalSlot);
+            }
+
             for (var view : views) {
                 if (view.isValidExternal(externalSlot)) {
                     return true;
@@ -159,63 +1136,466 @@ class InventoryViewImpl {
             }
             return false;
         }
+
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            for (int i = 0; i < views.size(); i++) {
+                final int offset = offsets[i];
+                views.get(i).forEachSlot((localSlot, externalSlot) -> action.accept(offset + localSlot, externalSlot));
+            }
+        }
+
+        // The offsets, index and table are derived entirely from the views, so they're excluded here
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Union union && views.equals(union.views);
+        }
+
+        @Override
+        public int hashCode() {
+            return views.hashCode();
+        }
     }
 
-    record Arbitrary(@NotNull IntList localToExternal, @NotNull Int2IntMap externalToLocal) implements InventoryView.Singular {
+    // Picks how to store its slots based on what they look like, as these are created often and usually small
+    // Implements InventoryView.Singular so that it can be treated as it when needed
+    //  (i.e. when we know that it must be singular, and so code duplication can be avoided)
+    // This is safe because implementing Singular doesn't actually have any side effects; it just adds utility methods.
+    //  (if Singular ever gets any actual side effects, this needs to be changed)
+    record Arbitrary(@NotNull Encoding encoding) implements InventoryView.Singular, BuiltIn {
 
         Arbitrary(@NotNull IntList localToExternal) {
-            this(localToExternal, reverse(localToExternal));
+            this(Encoding.of(localToExternal));
         }
 
-        private static @NotNull Int2IntMap reverse(@NotNull IntList localToExternal) {
-            var map = new Int2IntOpenHashMap(localToExternal.size());
-            for (int i = 0; i < localToExternal.size(); i++) {
-                map.put(localToExternal.getInt(i), i);
+        @Override
+        public int size() {
+            return encoding.size();
+        }
+
+        @Override
+        public int localToExternal(int localSlot) {
+            if (!isValidLocal(localSlot)) {
+                return -1;
             }
-            return map;
+            return encoding.localToExternal(localSlot);
         }
 
-        Arbitrary {
-            // Yes, this doesn't guarantee immutability, but it's close enough as we can control API usages anyway.
-            externalToLocal = Int2IntMaps.unmodifiable(externalToLocal);
+        @Override
+        public int externalToLocal(int externalSlot) {
+            if (externalSlot < 0) {
+                return -1;
+            }
+            return encoding.externalToLocal(externalSlot);
+        }
+
+        @Override
+        public boolean isValidExternal(int externalSlot) {
+            return externalToLocal(externalSlot) != -1;
+        }
+
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            encoding.forEachSlot(action);
+        }
+
+        // Encodings are chosen deterministically from the slots, so equal slots always produce equal encodings.
+        // Each one only needs to handle valid local slots and non-negative external slots.
+        sealed interface Encoding {
+
+            // Ranges of external slots up to this size (or a few times the number of slots) are indexed directly
+            int DENSE_SPAN = 64;
+            int DENSE_SPAN_FACTOR = 4;
+
+            static @NotNull Encoding of(@NotNull IntList localToExternal) {
+                int[] slots = localToExternal.toIntArray();
+
+                int min = Integer.MAX_VALUE, max = -1, runs = 0;
+                boolean increasing = true;
+                for (int i = 0; i < slots.length; i++) {
+                    if (slots[i] < 0) {
+                        throw new IllegalArgumentException("Slot IDs cannot be negatively signed!");
+                    }
+                    min = Math.min(min, slots[i]);
+                    max = Math.max(max, slots[i]);
+
+                    if (i > 0 && slots[i] <= slots[i - 1]) {
+                        increasing = false;
+                    }
+                    if (i == 0 || slots[i] != slots[i - 1] + 1) {
+                        runs++;
+                    }
+                }
+
+                if (slots.length == 0) {
+                    return new Dense8(slots, 0, new byte[0]);
+                } else if (increasing && runs * 2 <= slots.length) {
+                    return Runs.of(slots, runs);
+                }
+
+                long span = (long) max - min + 1;
+                if (span <= Math.max(DENSE_SPAN, (long) slots.length * DENSE_SPAN_FACTOR)) {
+                    return slots.length <= 0xFF ? Dense8.of(slots, min, (int) span) : Dense32.of(slots, min, (int) span);
+                }
+                return Hashed.of(slots);
+            }
+
+            int size();
+
+            int localToExternal(int localSlot);
+
+            int externalToLocal(int externalSlot);
+
+            default void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+                final int size = size();
+                for (int slot = 0; slot < size; slot++) {
+                    action.accept(slot, localToExternal(slot));
+                }
+            }
+
+        }
+
+        // Direct-indexed inverse for few slots, storing each local slot plus one (so that zero means no slot)
+        record Dense8(int @NotNull [] slots, int offset, byte @NotNull [] inverse) implements Encoding {
+
+            static @NotNull Dense8 of(int @NotNull [] slots, int offset, int span) {
+                byte[] inverse = new byte[span];
+                for (int i = 0; i < slots.length; i++) {
+                    inverse[slots[i] - offset] = (byte) (i + 1);
+                }
+                return new Dense8(slots, offset, inverse);
+            }
+
+            @Override
+            public int size() {
+                return slots.length;
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return slots[localSlot];
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                int index = externalSlot - offset;
+                if (index < 0 || index >= inverse.length) {
+                    return -1;
+                }
+                return (inverse[index] & 0xFF) - 1;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof Dense8 dense && Arrays.equals(slots, dense.slots);
+            }
+
+            @Override
+            public int hashCode() {
+                return Arrays.hashCode(slots);
+            }
+        }
+
+        // Direct-indexed inverse for many slots, with -1 meaning no slot
+        record Dense32(int @NotNull [] slots, int offset, int @NotNull [] inverse) implements Encoding {
+
+            static @NotNull Dense32 of(int @NotNull [] slots, int offset, int span) {
+                int[] inverse = new int[span];
+                Arrays.fill(inverse, -1);
+                for (int i = 0; i < slots.length; i++) {
+                    inverse[slots[i] - offset] = i;
+                }
+                return new Dense32(slots, offset, inverse);
+            }
 
-            localToExternal = new IntImmutableList(localToExternal);
-            for (var slot : localToExternal) {
-                if (slot < 0) {
-                    throw new IllegalArgumentException("Slot IDs cannot be negatively signed!");
+            @Override
+            public int size() {
+                return slots.length;
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return slots[localSlot];
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                int index = externalSlot - offset;
+                if (index < 0 || index >= inverse.length) {
+                    return -1;
+                }
+                return inverse[index];
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof Dense32 dense && Arrays.equals(slots, dense.slots);
+            }
+
+            @Override
+            public int hashCode() {
+                return Arrays.hashCode(slots);
+            }
+        }
+
+        // Strictly increasing slots stored as runs of consecutive slots, which are searched in both directions
+        // Run i covers local slots localStarts[i] (inclusive) to localStarts[i + 1] (exclusive), or size for the last
+        record Runs(int size, int @NotNull [] localStarts, int @NotNull [] externalStarts) implements Encoding {
+
+            static @NotNull Runs of(int @NotNull [] slots, int runs) {
+                int[] localStarts = new int[runs];
+                int[] externalStarts = new int[runs];
+
+                int run = -1;
+                for (int i = 0; i < slots.length; i++) {
+                    if (i == 0 || slots[i] != slots[i - 1] + 1) {
+                        run++;
+                        localStarts[run] = i;
+                        externalStarts[run] = slots[i];
+                    }
+                }
+                return new Runs(slots.length, localStarts, externalStarts);
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                int run = floor(localStarts, localSlot);
+                return externalStarts[run] + (localSlot - localStarts[run]);
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                int run = floor(externalStarts, externalSlot);
+                if (run == -1) {
+                    return -1;
+                }
+                int end = run + 1 < localStarts.length ? localStarts[run + 1] : size;
+                int local = localStarts[run] + (externalSlot - externalStarts[run]);
+                return local < end ? local : -1;
+            }
+
+            @Override
+            public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+                for (int run = 0; run < localStarts.length; run++) {
+                    int end = run + 1 < localStarts.length ? localStarts[run + 1] : size;
+                    for (int slot = localStarts[run]; slot < end; slot++) {
+                        action.accept(slot, externalStarts[run] + (slot - localStarts[run]));
+                    }
+                }
+            }
+
+            // Returns the index of the last value that is less than or equal to the key, or -1 if there isn't one
+            private static int floor(int @NotNull [] sorted, int key) {
+                int low = 0, high = sorted.length - 1;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    if (sorted[mid] <= key) {
+                        low = mid + 1;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                return high;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof Runs runs && size == runs.size &&
+                        Arrays.equals(localStarts, runs.localStarts) && Arrays.equals(externalStarts, runs.externalStarts);
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * (31 * size + Arrays.hashCode(localStarts)) + Arrays.hashCode(externalStarts);
+            }
+        }
+
+        // Hashed inverse, only for slots that are too sparse to index directly
+        record Hashed(int @NotNull [] slots, @NotNull Int2IntMap inverse) implements Encoding {
+
+            static @NotNull Hashed of(int @NotNull [] slots) {
+                var inverse = new Int2IntOpenHashMap(slots.length);
+                inverse.defaultReturnValue(-1);
+                for (int i = 0; i < slots.length; i++) {
+                    inverse.put(slots[i], i);
+                }
+                return new Hashed(slots, Int2IntMaps.unmodifiable(inverse));
+            }
+
+            @Override
+            public int size() {
+                return slots.length;
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return slots[localSlot];
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                return inverse.get(externalSlot);
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof Hashed hashed && Arrays.equals(slots, hashed.slots);
+            }
+
+            @Override
+            public int hashCode() {
+                return Arrays.hashCode(slots);
+            }
+        }
+    }
+
+    // Flattens any view into two lookup tables, so that each conversion is a single array access
+    // The inverse table is dense, starting at the smallest external slot ID, with -1 marking unmapped slots
+    // The lock strategy of the original view is kept, as it isn't part of the mapping but still needs to be preserved
+    // Implements InventoryView.Singular so that it can be treated as it when needed
+    //  (i.e. when we know that it must be singular, and so code duplication can be avoided)
+    // This is safe because implementing Singular doesn't actually have any side effects; it just adds utility methods.
+    //  (if Singular ever gets any actual side effects, this needs to be changed)
+    record Compiled(int @NotNull [] localToExternal, int externalOffset, int @NotNull [] externalToLocal,
+                    @NotNull LockStrategy lockStrategy) implements InventoryView.Singular, BuiltIn {
+
+        static @NotNull Compiled of(@NotNull InventoryView view) {
+            if (view instanceof Compiled compiled) {
+                return compiled;
+            }
+
+            final int size = view.size();
+            int[] localToExternal = new int[size];
+
+            int min = Integer.MAX_VALUE, max = -1;
+            for (int slot = 0; slot < size; slot++) {
+                int external = view.isValidLocal(slot) ? view.localToExternal(slot) : -1;
+                localToExternal[slot] = external;
+                if (external >= 0) {
+                    min = Math.min(min, external);
+                    max = Math.max(max, external);
+                }
+            }
+
+            if (max == -1) {
+                return new Compiled(localToExternal, 0, new int[0], view.lockStrategy());
+            }
+
+            int[] externalToLocal = new int[max - min + 1];
+            Arrays.fill(externalToLocal, -1);
+            for (int external : localToExternal) {
+                // Ask the view itself so that its semantics for duplicate slots (e.g. unions) are preserved
+                if (external >= 0 && externalToLocal[external - min] == -1) {
+                    externalToLocal[external - min] = view.externalToLocal(external);
                 }
             }
+
+            return new Compiled(localToExternal, min, externalToLocal, view.lockStrategy());
         }
 
         @Override
         public int size() {
-            return localToExternal.size();
+            return localToExternal.length;
         }
 
         @Override
         public int localToExternal(int localSlot) {
-            if (!isValidLocal(localSlot)) {
+            if (localSlot < 0 || localSlot >= localToExternal.length) {
                 return -1;
             }
-            return localToExternal.getInt(localSlot);
+            return localToExternal[localSlot];
+        }
+
+        @Override
+        public boolean isValidLocal(int localSlot) {
+            return localToExternal(localSlot) != -1;
         }
 
         @Override
         public int externalToLocal(int externalSlot) {
-            if (!isValidExternal(externalSlot)) {
+            int index = externalSlot - externalOffset;
+            if (index < 0 || index >= externalToLocal.length) {
                 return -1;
             }
-            return externalToLocal.get(externalSlot);
+            return externalToLocal[index];
+        }
+
+        @Override
+        public boolean isValidExternal(int externalSlot) {
+            return externalToLocal(externalSlot) != -1;
+        }
+
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            for (int slot = 0; slot < localToExternal.length; slot++) {
+                action.accept(slot, localToExternal[slot]);
+            }
+        }
+
+        @Override
+        public int @NotNull [] externalSlots() {
+            return localToExternal.clone();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Compiled compiled && externalOffset == compiled.externalOffset &&
+                    Arrays.equals(localToExternal, compiled.localToExternal) &&
+                    Arrays.equals(externalToLocal, compiled.externalToLocal) &&
+                    lockStrategy.equals(compiled.lockStrategy);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Arrays.hashCode(localToExternal) + externalOffset) + lockStrategy.hashCode();
+        }
+    }
+
+    // Overrides the lock strategy of a view without changing how it maps slots
+    // Implements InventoryView.Singular so that it can be treated as it when needed
+    //  (i.e. when we know that it must be singular, and so code duplication can be avoided)
+    // This is safe because implementing Singular doesn't actually have any side effects; it just adds utility methods.
+    //  (if Singular ever gets any actual side effects, this needs to be changed)
+    record Locked(@NotNull InventoryView base, @NotNull LockStrategy lockStrategy) implements InventoryView.Singular, BuiltIn {
+
+        @Override
+        public int size() {
+            return base.size();
+        }
+
+        @Override
+        public int localToExternal(int localSlot) {
+            return base.localToExternal(localSlot);
+        }
+
+        @Override
+        public boolean isValidLocal(int localSlot) {
+            return base.isValidLocal(localSlot);
+        }
+
+        @Override
+        public int externalToLocal(int externalSlot) {
+            return base.externalToLocal(externalSlot);
         }
 
         @Override
         public boolean isValidExternal(int externalSlot) {
-            return externalToLocal.containsKey(externalSlot);
+            return base.isValidExternal(externalSlot);
+        }
+
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            base.forEachSlot(action);
+        }
+
+        @Override
+        public @NotNull InventoryView withLocking(@NotNull LockStrategy strategy) {
+            return new Locked(base, strategy);
         }
     }
 
     // No need to implement singular because the reverse of singular is itself.
-    record Reversed(@NotNull InventoryView base) implements InventoryView {
+    record Reversed(@NotNull InventoryView base) implements BuiltIn {
 
         @Override
         public int size() {
@@ -229,13 +1609,29 @@ class InventoryViewImpl {
 
         @Override
         public int externalToLocal(int externalSlot) {
-            return base.externalToLocal(size() - 1 - externalSlot);
+            if (!base.isValidExternal(externalSlot)) {
+                return -1;
+            }
+            return size() - 1 - base.externalToLocal(externalSlot);
         }
 
         @Override
         public boolean isValidExternal(int externalSlot) {
             return base.isValidExternal(externalSlot);
         }
+
+        @Override
+        public @NotNull LockStrategy lockStrategy() {
+            return base.lockStrategy();
+        }
+
+        @Override
+        public void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            int[] baseSlots = base.externalSlots();
+            for (int slot = 0; slot < baseSlots.length; slot++) {
+                action.accept(slot, baseSlots[baseSlots.length - 1 - slot]);
+            }
+        }
     }
 
 }
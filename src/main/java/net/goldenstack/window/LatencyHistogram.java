@@ -0,0 +1,131 @@
+package net.goldenstack.window;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with buckets that grow exponentially like in HdrHistogram. Each
+ * power of two is split into eight linear buckets, so recorded values lose at most 12.5% of their precision, across
+ * the entire range of non-negative longs.<br>
+ * Recording and reading may happen concurrently, in which case reads may not include every concurrent recording.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    // Buckets are created when first recorded into, as most of them never are; a LongAdder per bucket keeps concurrent
+    //  recordings from retrying on contention like a single atomic counter would
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one duration. Negative durations, which can only be caused by clock issues, are recorded as zero.
+     * @param nanos the duration to record, in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        bucket(bucket(value)).increment();
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     * @return the number of recordings
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of every recorded duration.
+     * @return the total duration, in nanoseconds
+     */
+    public long totalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the longest recorded duration, which is exact.
+     * @return the maximum duration, in nanoseconds, or zero if nothing was recorded
+     */
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Estimates the duration that the provided percentage of recordings are less than or equal to. The estimate is the
+     * upper bound of the bucket that contains it, capped at the maximum duration.
+     * @param percentile the percentile to estimate, from 0 to 100
+     * @return the estimated duration, in nanoseconds, or zero if nothing was recorded
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100!");
+        }
+
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += sum(bucket);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += sum(bucket);
+            if (seen >= target) {
+                return Math.min(upperBound(bucket), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    private @NotNull LongAdder bucket(int bucket) {
+        var adder = buckets.get(bucket);
+        if (adder == null) {
+            var created = new LongAdder();
+            adder = buckets.compareAndExchange(bucket, null, created);
+            if (adder == null) {
+                adder = created;
+            }
+        }
+        return adder;
+    }
+
+    private long sum(int bucket) {
+        var adder = buckets.get(bucket);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    // Values below SUB_BUCKETS get a bucket each, and every larger power of two is split into SUB_BUCKETS buckets
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lower + (width - 1);
+    }
+
+}
@@ -0,0 +1,88 @@
+package net.goldenstack.window;
+
+import net.minestom.server.inventory.AbstractInventory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Determines how inventory views guard operations that involve multiple slots (e.g.
+ * {@link InventoryView#add(AbstractInventory, net.minestom.server.item.ItemStack)}) against other threads.<br>
+ * Strategies only exclude operations that use the same strategy on the same inventory, so each inventory should
+ * generally only be used with one strategy.<br>
+ * Views use the {@link #global() global strategy} unless another one is provided via
+ * {@link InventoryView#withLocking(LockStrategy)}, which can also be used for individual calls, e.g.
+ * {@code view.withLocking(LockStrategy.none()).fill(inv, filler)}. Custom implementations of this interface are also
+ * supported.
+ */
+public interface LockStrategy {
+
+    /**
+     * Returns the global strategy, which forwards each operation to the strategy most recently provided to
+     * {@link #setGlobal(LockStrategy)}. This is {@link #monitor()} unless it has been changed.
+     * @return the global lock strategy
+     */
+    static @NotNull LockStrategy global() {
+        return LockStrategyImpl.Global.INSTANCE;
+    }
+
+    /**
+     * Sets the strategy that {@link #global()} forwards to. As operations that use different strategies don't exclude
+     * each other, this should be called before any views are used, e.g. when the server starts.
+     * @param strategy the new global strategy
+     */
+    static void setGlobal(@NotNull LockStrategy strategy) {
+        LockStrategyImpl.Global.set(strategy);
+    }
+
+    /**
+     * Returns a strategy that locks the monitor of the entire inventory, via {@code synchronized (inv)}. This excludes
+     * all other operations on the inventory, including Minestom's own synchronized methods, regardless of which slots
+     * they involve.
+     * @return the monitor lock strategy
+     */
+    static @NotNull LockStrategy monitor() {
+        return LockStrategyImpl.Monitor.INSTANCE;
+    }
+
+    /**
+     * Returns a strategy that locks a {@link java.util.concurrent.locks.ReentrantLock} owned by the inventory. This
+     * excludes the same operations as {@link #monitor()} (except for Minestom's own synchronized methods), but, unlike
+     * it, doesn't pin virtual threads to their carrier thread while they wait for the lock.
+     * @return the reentrant lock strategy
+     */
+    static @NotNull LockStrategy reentrant() {
+        return LockStrategyImpl.Reentrant.INSTANCE;
+    }
+
+    /**
+     * Returns a strategy that doesn't lock anything. This should only be used when each inventory is only ever
+     * accessed from one thread, such as the tick thread of the instance that it's in.
+     * @return the no-op lock strategy
+     */
+    static @NotNull LockStrategy none() {
+        return LockStrategyImpl.None.INSTANCE;
+    }
+
+    /**
+     * Returns a strategy that splits each inventory into stripes of consecutive slots, and only locks the stripes that
+     * contain the external slots involved in each operation. Operations on views with slots that don't share any
+     * stripes can thus run at the same time.<br>
+     * Stripes are always locked in ascending order, so operations can't deadlock each other.
+     * @return the striped lock strategy
+     */
+    static @NotNull LockStrategy striped() {
+        return LockStrategyImpl.Striped.INSTANCE;
+    }
+
+    /**
+     * Runs the provided action while the provided external slots of the inventory are guarded by this strategy.
+     * @param inv the inventory that the action involves
+     * @param externalSlots the external slots (relative to the inventory) that the action involves
+     * @param action the action to run
+     * @return the result of the action
+     * @param <T> the type of the result of the action
+     */
+    <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action);
+
+}
@@ -0,0 +1,183 @@
+package net.goldenstack.window;
+
+import net.minestom.server.inventory.AbstractInventory;
+import net.minestom.server.tag.Tag;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+class LockStrategyImpl {
+
+    // Reports the wait for a lock to the metrics and to JFR, once it has been acquired
+    static void acquired(long start, @NotNull ViewEvents.LockWait event, @NotNull String strategy, int @NotNull [] externalSlots) {
+        ViewMetricsImpl.lockAcquired(start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = strategy;
+            event.slots = externalSlots.length;
+            event.commit();
+        }
+    }
+
+    // Slot arrays may be shared with views (see InventoryViewImpl#resolve), so strategies that aren't built in get a
+    //  copy, as they're free to modify it
+    static <T> T lock(@NotNull LockStrategy strategy, @NotNull AbstractInventory inv,
+                      int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+        var target = target(strategy);
+        return target.withLock(inv, target instanceof BuiltIn ? externalSlots : externalSlots.clone(), action);
+    }
+
+    // Returns the strategy that actually does the locking, i.e. the current delegate of the global strategy
+    static @NotNull LockStrategy target(@NotNull LockStrategy strategy) {
+        return strategy == Global.INSTANCE ? Global.strategy : strategy;
+    }
+
+    private static final Tag<Long> ORDER = Tag.Transient("window:lock_order");
+    private static final AtomicLong NEXT_ORDER = new AtomicLong();
+
+    // Returns a unique and stable number for the inventory, so that operations locking several inventories can always
+    //  lock them in the same order; numbers are assigned when first needed
+    static long order(@NotNull AbstractInventory inv) {
+        var order = inv.getTag(ORDER);
+        if (order != null) {
+            return order;
+        }
+        return inv.updateAndGetTag(ORDER, existing -> existing != null ? existing : NEXT_ORDER.getAndIncrement());
+    }
+
+    sealed interface BuiltIn extends LockStrategy permits Global, None, Monitor, Reentrant, Striped {}
+
+    enum Global implements BuiltIn {
+        INSTANCE;
+
+        private static volatile LockStrategy strategy = Monitor.INSTANCE;
+
+        static void set(@NotNull LockStrategy strategy) {
+            if (strategy == INSTANCE) {
+                throw new IllegalArgumentException("The global strategy cannot forward to itself!");
+            }
+            Global.strategy = strategy;
+        }
+
+        @Override
+        public <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+            return strategy.withLock(inv, externalSlots, action);
+        }
+    }
+
+    enum None implements BuiltIn {
+        INSTANCE;
+
+        @Override
+        public <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+            return action.get();
+        }
+    }
+
+    enum Monitor implements BuiltIn {
+        INSTANCE;
+
+        @Override
+        @SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
+        public <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+            long start = ViewMetricsImpl.start();
+            var event = new ViewEvents.LockWait();
+            event.begin();
+            synchronized (inv) {
+                acquired(start, event, "monitor", externalSlots);
+                return action.get();
+            }
+        }
+    }
+
+    enum Reentrant implements BuiltIn {
+        INSTANCE;
+
+        private static final Tag<ReentrantLock> LOCK = Tag.Transient("window:lock");
+
+        @Override
+        public <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+            var lock = lock(inv);
+            long start = ViewMetricsImpl.start();
+            var event = new ViewEvents.LockWait();
+            event.begin();
+            lock.lock();
+            try {
+                acquired(start, event, "reentrant", externalSlots);
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static @NotNull ReentrantLock lock(@NotNull AbstractInventory inv) {
+            var lock = inv.getTag(LOCK);
+            if (lock != null) {
+                return lock;
+            }
+            return inv.updateAndGetTag(LOCK, existing -> existing != null ? existing : new ReentrantLock());
+        }
+    }
+
+    // Each stripe covers one row of a standard inventory, which is how views are most commonly split up
+    enum Striped implements BuiltIn {
+        INSTANCE;
+
+        static final int STRIPE_WIDTH = 9;
+
+        private static final Tag<ReentrantLock[]> STRIPES = Tag.Transient("window:lock_stripes");
+
+        @Override
+        public <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+            var stripes = stripes(inv);
+
+            // Ascending order is the global lock order, so collect and sort the stripes before locking any of them
+            var needed = new BitSet(stripes.length);
+            for (int slot : externalSlots) {
+                if (slot >= 0) {
+                    needed.set(Math.min(slot / STRIPE_WIDTH, stripes.length - 1));
+                }
+            }
+
+            int locked = 0;
+            long start = ViewMetricsImpl.start();
+            var event = new ViewEvents.LockWait();
+            event.begin();
+            try {
+                for (int stripe = needed.nextSetBit(0); stripe >= 0; stripe = needed.nextSetBit(stripe + 1)) {
+                    stripes[stripe].lock();
+                    locked++;
+                }
+                acquired(start, event, "striped", externalSlots);
+                return action.get();
+            } finally {
+                for (int stripe = needed.nextSetBit(0); stripe >= 0 && locked > 0; stripe = needed.nextSetBit(stripe + 1)) {
+                    stripes[stripe].unlock();
+                    locked--;
+                }
+            }
+        }
+
+        private static @NotNull ReentrantLock @NotNull [] stripes(@NotNull AbstractInventory inv) {
+            var stripes = inv.getTag(STRIPES);
+            if (stripes != null) {
+                return stripes;
+            }
+            return inv.updateAndGetTag(STRIPES, existing -> {
+                if (existing != null) {
+                    return existing;
+                }
+                var created = new ReentrantLock[Math.max(1, (inv.getSize() + STRIPE_WIDTH - 1) / STRIPE_WIDTH)];
+                for (int i = 0; i < created.length; i++) {
+                    created[i] = new ReentrantLock();
+                }
+                return created;
+            });
+        }
+    }
+
+}
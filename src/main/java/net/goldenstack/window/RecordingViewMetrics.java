@@ -0,0 +1,82 @@
+package net.goldenstack.window;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default implementation of {@link ViewMetrics}, which records every measurement into a {@link LatencyHistogram}
+ * for its operation, another one for its operation and the name of its view (if it's named), and one for lock waits.
+ * The number of recordings in each histogram doubles as the counter of its operation.<br>
+ * Recording is lock-free, apart from creating the histograms of a view name when it's first seen.
+ */
+public final class RecordingViewMetrics implements ViewMetrics {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LatencyHistogram[] operations = histograms();
+    private final Map<String, LatencyHistogram[]> views = new ConcurrentHashMap<>();
+    private final LatencyHistogram lockWait = new LatencyHistogram();
+
+    @Override
+    public void record(@NotNull Operation operation, @Nullable String view, long nanos) {
+        operations[operation.ordinal()].record(nanos);
+        if (view != null) {
+            views.computeIfAbsent(view, name -> histograms())[operation.ordinal()].record(nanos);
+        }
+    }
+
+    @Override
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos);
+    }
+
+    /**
+     * Returns the histogram of every measurement of the provided operation, regardless of the view.
+     * @param operation the operation to get the histogram of
+     * @return the histogram of the operation
+     */
+    public @NotNull LatencyHistogram histogram(@NotNull Operation operation) {
+        return operations[operation.ordinal()];
+    }
+
+    /**
+     * Returns the histogram of the measurements of the provided operation on views with the provided name.
+     * @param operation the operation to get the histogram of
+     * @param view the name of the view
+     * @return the histogram of the operation on the view, or null if no view with the name has been measured
+     */
+    public @Nullable LatencyHistogram histogram(@NotNull Operation operation, @NotNull String view) {
+        var histograms = views.get(view);
+        return histograms != null ? histograms[operation.ordinal()] : null;
+    }
+
+    /**
+     * Returns the names of every view that has been measured.
+     * @return an unmodifiable view of the measured view names
+     */
+    public @NotNull Set<@NotNull String> viewNames() {
+        return Collections.unmodifiableSet(views.keySet());
+    }
+
+    /**
+     * Returns the histogram of the time spent waiting for locks.
+     * @return the histogram of lock waits
+     */
+    public @NotNull LatencyHistogram lockWait() {
+        return lockWait;
+    }
+
+    private static @NotNull LatencyHistogram @NotNull [] histograms() {
+        var histograms = new LatencyHistogram[OPERATIONS.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+}
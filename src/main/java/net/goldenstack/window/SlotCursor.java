@@ -0,0 +1,89 @@
+package net.goldenstack.window;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A reusable cursor over the slots of a view, providing each local slot ID along with the external slot ID that it
+ * maps to. The slots are all converted at once when the cursor is reset, and the cursor's buffer is reused as long as
+ * it's large enough. Contiguous views, unions and compiled views (see {@link InventoryView#compile()}), as well as the
+ * layouts in {@link Views}, keep their converted slots, so resetting a cursor to them doesn't allocate; other views
+ * are converted again on each reset.<br>
+ * Cursors are mutable and aren't thread-safe; each one should only be used by one thread at a time.
+ * <pre>{@code
+ * var cursor = view.cursor();
+ * while (cursor.next()) {
+ *     inv.setItemStack(cursor.external(), ItemStack.AIR);
+ * }
+ * }</pre>
+ */
+public final class SlotCursor {
+
+    private int[] externalSlots = new int[0];
+    private int size = 0;
+    private int position = -1;
+
+    /**
+     * Resets this cursor to the start of the provided view, converting all of its slots.
+     * @param view the view to iterate over
+     */
+    public void reset(@NotNull InventoryView view) {
+        final int size = view.size();
+        if (externalSlots.length < size) {
+            externalSlots = new int[size];
+        }
+        System.arraycopy(InventoryViewImpl.resolve(view, 0, size), 0, externalSlots, 0, size);
+
+        this.size = size;
+        this.position = -1;
+    }
+
+    /**
+     * Returns to the start of the current view, without converting its slots again.
+     */
+    public void rewind() {
+        this.position = -1;
+    }
+
+    /**
+     * Moves this cursor to the next slot, returning whether or not there was one.
+     * @return true if the cursor is now at a slot, and false if it has passed the last slot
+     */
+    public boolean next() {
+        if (position < size) {
+            position++;
+        }
+        return position < size;
+    }
+
+    /**
+     * Returns the number of slots in the current view.
+     * @return the size of the current view
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the local slot ID that this cursor is at.
+     * @return the current local slot ID
+     * @throws NoSuchElementException if the cursor isn't at a slot
+     */
+    public int local() {
+        if (position < 0 || position >= size) {
+            throw new NoSuchElementException("The cursor isn't at a slot!");
+        }
+        return position;
+    }
+
+    /**
+     * Returns the external slot ID of the local slot that this cursor is at, or -1 if the local slot is invalid.
+     * @return the current external slot ID
+     * @throws NoSuchElementException if the cursor isn't at a slot
+     */
+    public int external() {
+        return externalSlots[local()];
+    }
+
+}
@@ -0,0 +1,91 @@
+package net.goldenstack.window;
+
+import jdk.jfr.*;
+import net.minestom.server.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+// JFR events for the operations of views that can take a long time, so that they can be told apart in recordings.
+// Each one is created and begun unconditionally, which the JIT eliminates while recording is off, but its fields are
+//  only computed after shouldCommit() (which includes isEnabled() and the threshold) passes.
+// Views are named via ViewMetrics#nameOf, so records in Views are identified by their name, e.g. Player.Armor.
+class ViewEvents {
+
+    private static final String CATEGORY = "Inventory Views";
+
+    @Category({"Minestom", CATEGORY})
+    abstract static class ViewEvent extends Event {
+
+        @Label("View")
+        @Description("The name of the view, if it's named")
+        String view;
+
+        @Label("Slots")
+        @Description("The number of slots involved in the operation")
+        int slots;
+
+    }
+
+    @Name("net.goldenstack.window.Add")
+    @Label("View Add")
+    @Description("Items added to a view, including merging into similar items")
+    static final class Add extends ViewEvent {
+
+        @Label("Items")
+        @Description("The number of item stacks that were provided")
+        int items;
+
+        @Label("Items Moved")
+        @Description("The total amount of items that were added")
+        int moved;
+
+    }
+
+    @Name("net.goldenstack.window.BulkWrite")
+    @Label("View Bulk Write")
+    @Description("Multiple slots of a view written at once, such as via fill or clear")
+    static final class BulkWrite extends ViewEvent {
+
+        @Label("Slots Written")
+        @Description("The number of slots that were written, excluding any that were skipped as unchanged")
+        int written;
+
+    }
+
+    @Name("net.goldenstack.window.Transaction")
+    @Label("View Transaction")
+    @Description("A transaction on a view, from its first attempt until it's committed")
+    static final class Transaction extends ViewEvent {
+
+        @Label("Attempts")
+        @Description("The number of times that the transaction was run")
+        int attempts;
+
+        @Label("Pessimistic")
+        @Description("Whether the transaction was run under the lock after too many conflicts")
+        boolean pessimistic;
+
+    }
+
+    @Name("net.goldenstack.window.LockWait")
+    @Label("View Lock Wait")
+    @Description("Time spent waiting to lock the slots of an inventory")
+    @Threshold("1 ms")
+    static final class LockWait extends ViewEvent {
+
+        @Label("Strategy")
+        @Description("The lock strategy that was waited for")
+        String strategy;
+
+    }
+
+    static int amount(@NotNull Iterable<@NotNull ItemStack> items) {
+        int amount = 0;
+        for (var item : items) {
+            if (!item.isAir()) {
+                amount += item.amount();
+            }
+        }
+        return amount;
+    }
+
+}
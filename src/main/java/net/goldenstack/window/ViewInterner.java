@@ -0,0 +1,190 @@
+package net.goldenstack.window;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Interns views, returning a canonical shared instance for views that are structurally equal. This avoids allocating
+ * the same views over and over (e.g. forking a slot of a menu each time it's clicked), and makes views that are equal
+ * also identical, which is useful for anything keyed on views.<br>
+ * Interners are bounded, evicting the views that were least recently used, and are safe to use from multiple threads.
+ * Using an interner is entirely optional, so it can be used only where it's helpful, via the methods here instead of
+ * the equivalent methods in {@link InventoryView}.
+ */
+public final class ViewInterner {
+
+    private static final ViewInterner GLOBAL = new ViewInterner(4096);
+
+    // Each segment is locked separately, so that lookups from different threads rarely contend
+    private static final int SEGMENTS = 16;
+
+    private static final ThreadLocal<Fork> PROBES = ThreadLocal.withInitial(Fork::new);
+
+    /**
+     * Returns the global interner, which stores up to 4096 views.
+     * @return the global interner
+     */
+    public static @NotNull ViewInterner global() {
+        return GLOBAL;
+    }
+
+    private final Map<Object, InventoryView>[] segments;
+
+    /**
+     * Creates a new interner that stores approximately up to the provided number of views.
+     * @param maximumSize the maximum number of views to store
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ViewInterner(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive!");
+        }
+
+        final int segmentSize = Math.max(1, maximumSize / SEGMENTS);
+        this.segments = new Map[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, InventoryView> eldest) {
+                    return size() > segmentSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the provided view. If no view that is equal to it has been interned (or it has
+     * been evicted), the provided view becomes the canonical instance.
+     * @param view the view to intern
+     * @return the canonical instance of the view, which is equal to it and of the same type
+     * @param <V> the type of the view
+     */
+    @SuppressWarnings("unchecked")
+    public <V extends InventoryView> @NotNull V intern(@NotNull V view) {
+        var existing = lookup(view);
+        if (existing != null && existing.getClass() == view.getClass()) {
+            return (V) existing;
+        }
+        var canonical = store(view, view);
+        return canonical.getClass() == view.getClass() ? (V) canonical : view;
+    }
+
+    /**
+     * Interned equivalent of {@link InventoryView#fork(int)}.
+     * @param parent the view to fork
+     * @param localSlot the local slot to view
+     * @return the canonical instance of the forked view
+     */
+    public @NotNull InventoryView.Singular fork(@NotNull InventoryView parent, int localSlot) {
+        var existing = lookup(Fork.SLOT, parent, localSlot, localSlot + 1, null);
+        if (existing != null) {
+            return (InventoryView.Singular) existing;
+        }
+        return (InventoryView.Singular) store(new Fork(Fork.SLOT, parent, localSlot, localSlot + 1, null), intern(parent.fork(localSlot)));
+    }
+
+    /**
+     * Interned equivalent of {@link InventoryView#forkRange(int, int)}.
+     * @param parent the view to fork
+     * @param localMin the minimum local slot value
+     * @param localMax the maximum local slot value
+     * @return the canonical instance of the forked view
+     */
+    public @NotNull InventoryView forkRange(@NotNull InventoryView parent, int localMin, int localMax) {
+        var existing = lookup(Fork.RANGE, parent, localMin, localMax, null);
+        if (existing != null) {
+            return existing;
+        }
+        return store(new Fork(Fork.RANGE, parent, localMin, localMax, null), intern(parent.forkRange(localMin, localMax)));
+    }
+
+    /**
+     * Interned equivalent of {@link InventoryView#fork(int...)}.
+     * @param parent the view to fork
+     * @param localSlots the local slots to incorporate into a view
+     * @return the canonical instance of the forked view
+     */
+    public @NotNull InventoryView fork(@NotNull InventoryView parent, int @NotNull ... localSlots) {
+        var existing = lookup(Fork.SLOTS, parent, 0, 0, localSlots);
+        if (existing != null) {
+            return existing;
+        }
+        return store(new Fork(Fork.SLOTS, parent, 0, 0, localSlots.clone()), intern(parent.fork(localSlots)));
+    }
+
+    // Looks up a fork with the calling thread's probe, so that hits don't allocate a key; the probe is only ever used
+    //  for lookups, and is cleared afterwards so that it doesn't keep the parent alive
+    private InventoryView lookup(int kind, @NotNull InventoryView parent, int min, int max, int[] slots) {
+        var probe = PROBES.get();
+        probe.set(kind, parent, min, max, slots);
+        try {
+            return lookup(probe);
+        } finally {
+            probe.set(0, null, 0, 0, null);
+        }
+    }
+
+    private InventoryView lookup(@NotNull Object key) {
+        var segment = segment(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    // Returns the stored view, which is the existing one if another thread stored one first
+    private @NotNull InventoryView store(@NotNull Object key, @NotNull InventoryView view) {
+        var segment = segment(key);
+        synchronized (segment) {
+            var existing = segment.putIfAbsent(key, view);
+            return existing != null ? existing : view;
+        }
+    }
+
+    private @NotNull Map<Object, InventoryView> segment(@NotNull Object key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    // Fork keys are stored alongside interned views; they can never be equal to views as they're a separate type.
+    // The kind of fork is part of the key, as forks of the same slots can be of different types (e.g. #fork(parent, 1)
+    //  is singular, while #forkRange(parent, 1, 2) needn't be). Keys are only mutable so that lookups can reuse a probe.
+    private static final class Fork {
+        static final int SLOT = 1, RANGE = 2, SLOTS = 3;
+
+        private int kind;
+        private InventoryView parent;
+        private int min, max;
+        private int[] slots;
+        private int hash;
+
+        Fork() {}
+
+        Fork(int kind, @NotNull InventoryView parent, int min, int max, int[] slots) {
+            set(kind, parent, min, max, slots);
+        }
+
+        void set(int kind, InventoryView parent, int min, int max, int[] slots) {
+            this.kind = kind;
+            this.parent = parent;
+            this.min = min;
+            this.max = max;
+            this.slots = slots;
+            this.hash = parent != null ? 31 * (31 * (31 * (31 * parent.hashCode() + kind) + min) + max) + Arrays.hashCode(slots) : 0;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Fork fork && kind == fork.kind && min == fork.min && max == fork.max &&
+                    Arrays.equals(slots, fork.slots) && parent.equals(fork.parent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package net.goldenstack.window;
+
+import net.minestom.server.inventory.AbstractInventory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives measurements of the operations done by inventory views, and of the time spent waiting for locks.<br>
+ * Views report to the {@link #global() global metrics}, which don't record anything unless they're changed via
+ * {@link #setGlobal(ViewMetrics)}; while they're disabled, each operation only checks a flag, without reading the
+ * clock. {@link RecordingViewMetrics} is the default implementation, but custom ones (e.g. one forwarding to an
+ * existing metrics library) are also supported. Implementations may be called from any thread at once.
+ */
+public interface ViewMetrics {
+
+    /**
+     * The operations of {@link InventoryView} that are measured.
+     */
+    enum Operation {
+
+        /**
+         * {@link InventoryView#get(AbstractInventory, int)}
+         */
+        GET,
+
+        /**
+         * {@link InventoryView#set(AbstractInventory, int, net.minestom.server.item.ItemStack)}
+         */
+        SET,
+
+        /**
+         * {@link InventoryView#add(AbstractInventory, net.minestom.server.item.ItemStack)} and
+         * {@link InventoryView#addAll(AbstractInventory, java.util.Collection)}, which is measured once per call
+         */
+        ADD,
+
+        /**
+         * {@link InventoryView#fill(AbstractInventory, it.unimi.dsi.fastutil.ints.Int2ObjectFunction)},
+         * {@link InventoryView#parallelFill(AbstractInventory, it.unimi.dsi.fastutil.ints.Int2ObjectFunction)} and
+         * {@link InventoryView#clear(AbstractInventory)}
+         */
+        FILL,
+
+        /**
+         * {@link InventoryView#collect(AbstractInventory)} and
+         * {@link InventoryView#collectInto(AbstractInventory, net.minestom.server.item.ItemStack[], int)}
+         */
+        COLLECT
+
+    }
+
+    /**
+     * Returns the metrics that views currently report to, which is {@link #none()} unless it has been changed.
+     * @return the global metrics
+     */
+    static @NotNull ViewMetrics global() {
+        return ViewMetricsImpl.global;
+    }
+
+    /**
+     * Sets the metrics that views report to. Providing {@link #none()} disables measuring entirely.
+     * @param metrics the new global metrics
+     */
+    static void setGlobal(@NotNull ViewMetrics metrics) {
+        ViewMetricsImpl.setGlobal(metrics);
+    }
+
+    /**
+     * Returns metrics that ignore every measurement. While these are the global metrics, views don't measure anything.
+     * @return the no-op metrics
+     */
+    static @NotNull ViewMetrics none() {
+        return ViewMetricsImpl.None.INSTANCE;
+    }
+
+    /**
+     * Names the provided view in measurements, replacing any existing name. Views equal to it share the name.<br>
+     * Views without a name that are records in {@link Views} are named after the record (e.g. {@code Player.Armor});
+     * every other view is unnamed.<br>
+     * Names are kept forever, so they're meant for a fixed set of views (e.g. the views of each menu), and at most
+     * {@value ViewMetricsImpl#MAX_NAMES} different views can be named.
+     * @param view the view to name
+     * @param name the name of the view
+     * @throws IllegalStateException if the view is unnamed and the maximum number of views have been named
+     */
+    static void name(@NotNull InventoryView view, @NotNull String name) {
+        ViewMetricsImpl.name(view, name);
+    }
+
+    /**
+     * Returns the name of the provided view in measurements.
+     * @param view the view to get the name of
+     * @return the name of the view, or null if it's unnamed
+     * @see #name(InventoryView, String)
+     */
+    static @Nullable String nameOf(@NotNull InventoryView view) {
+        return ViewMetricsImpl.nameOf(view);
+    }
+
+    /**
+     * Records one operation on a view.
+     * @param operation the operation that was done
+     * @param view the name of the view that it was done on, or null if the view is unnamed
+     * @param nanos the duration of the operation, in nanoseconds
+     */
+    void record(@NotNull Operation operation, @Nullable String view, long nanos);
+
+    /**
+     * Records the time spent waiting to acquire a lock from one of the built-in {@link LockStrategy lock strategies}.
+     * @param nanos the duration of the wait, in nanoseconds
+     */
+    void recordLockWait(long nanos);
+
+}
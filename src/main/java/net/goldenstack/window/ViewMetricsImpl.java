@@ -0,0 +1,78 @@
+package net.goldenstack.window;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ViewMetricsImpl {
+
+    // Returned by start() while disabled; System.nanoTime() can be any value, but realistically never this one
+    static final long NOT_STARTED = Long.MIN_VALUE;
+
+    // Names are read on every recorded operation, so they're kept in a map that doesn't lock on reads; as names are never
+    //  removed, the number of named views is bounded instead
+    static final int MAX_NAMES = 1024;
+    private static final Map<InventoryView, String> NAMES = new ConcurrentHashMap<>();
+
+    static volatile @NotNull ViewMetrics global = None.INSTANCE;
+    private static volatile boolean enabled = false;
+
+    static void setGlobal(@NotNull ViewMetrics metrics) {
+        global = metrics;
+        enabled = metrics != None.INSTANCE;
+    }
+
+    static long start() {
+        return enabled ? System.nanoTime() : NOT_STARTED;
+    }
+
+    static void end(@NotNull ViewMetrics.Operation operation, @NotNull InventoryView view, long start) {
+        if (start != NOT_STARTED) {
+            global.record(operation, nameOf(view), System.nanoTime() - start);
+        }
+    }
+
+    static void lockAcquired(long start) {
+        if (start != NOT_STARTED) {
+            global.recordLockWait(System.nanoTime() - start);
+        }
+    }
+
+    static void name(@NotNull InventoryView view, @NotNull String name) {
+        // Concurrent calls may go slightly over the limit, which is fine, as it only has to bound memory
+        if (NAMES.size() >= MAX_NAMES && !NAMES.containsKey(view)) {
+            throw new IllegalStateException("At most " + MAX_NAMES + " views can be named!");
+        }
+        NAMES.put(view, name);
+    }
+
+    static @Nullable String nameOf(@NotNull InventoryView view) {
+        var name = NAMES.get(view);
+        return name != null ? name : VIEWS_NAMES.get(view.getClass());
+    }
+
+    // Records nested in Views are named by their path within it, e.g. Views$Player$Armor becomes Player.Armor
+    private static final ClassValue<String> VIEWS_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(@NotNull Class<?> type) {
+            var prefix = Views.class.getName() + "$";
+            if (!type.isRecord() || !type.getName().startsWith(prefix)) {
+                return null;
+            }
+            return type.getName().substring(prefix.length()).replace('$', '.');
+        }
+    };
+
+    enum None implements ViewMetrics {
+        INSTANCE;
+
+        @Override
+        public void record(@NotNull Operation operation, @Nullable String view, long nanos) {}
+
+        @Override
+        public void recordLockWait(long nanos) {}
+    }
+
+}
@@ -0,0 +1,104 @@
+package net.goldenstack.window;
+
+import net.minestom.server.inventory.AbstractInventory;
+import net.minestom.server.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A reusable buffer storing the items in a view, indexed by local slot ID. The external slots of the view are resolved
+ * once when the snapshot is created, so refilling it doesn't need to convert any slots or allocate anything.<br>
+ * Snapshots are mutable and aren't thread-safe; each one should only be used by one thread at a time.
+ */
+public final class ViewSnapshot {
+
+    private final @NotNull InventoryView view;
+    private final int @NotNull [] externalSlots;
+    private final @NotNull ItemStack @NotNull [] items;
+
+    // Reading through a pre-made supplier avoids allocating a new capturing lambda on each refill
+    private final @NotNull Supplier<Void> reader = this::read;
+    private AbstractInventory source;
+
+    /**
+     * Creates a new snapshot of the provided view, with every slot being air until it's filled.
+     * @param view the view to store the items of
+     */
+    public ViewSnapshot(@NotNull InventoryView view) {
+        this.view = view;
+        this.externalSlots = InventoryViewImpl.resolve(view, 0, view.size());
+        this.items = new ItemStack[externalSlots.length];
+        Arrays.fill(items, ItemStack.AIR);
+    }
+
+    /**
+     * Returns the view that this snapshot stores the items of.
+     * @return the view of this snapshot
+     */
+    public @NotNull InventoryView view() {
+        return view;
+    }
+
+    /**
+     * Returns the number of slots in this snapshot, which is the size of the view when the snapshot was created.
+     * @return the size of this snapshot
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Gets the item that was at the provided local slot ID when this snapshot was last filled.
+     * @param localSlot the specific local slot to read
+     * @return the item at the slot in this snapshot
+     */
+    public @NotNull ItemStack get(int localSlot) {
+        return items[Objects.checkIndex(localSlot, items.length)];
+    }
+
+    /**
+     * Refills this snapshot in place with the current items of its view in the provided inventory. The slots are
+     * locked while they're read, according to the lock strategy of the view.
+     * @param inv the source of the items
+     */
+    public void refill(@NotNull AbstractInventory inv) {
+        this.source = inv;
+        try {
+            LockStrategyImpl.lock(view.lockStrategy(), inv, externalSlots, reader);
+        } finally {
+            this.source = null;
+        }
+    }
+
+    private Void read() {
+        for (int i = 0; i < externalSlots.length; i++) {
+            items[i] = source.getItemStack(externalSlots[i]);
+        }
+        return null;
+    }
+
+    /**
+     * Copies the items in this snapshot into the provided array, with the item at each local slot {@code i} being
+     * stored in {@code dest[offset + i]}.
+     * @param dest the array to store the items in
+     * @param offset the index in the array to store the item at local slot {@code 0} in
+     */
+    public void copyInto(@NotNull ItemStack @NotNull [] dest, int offset) {
+        System.arraycopy(items, 0, dest, offset, items.length);
+    }
+
+    /**
+     * Copies the items in this snapshot into a new immutable list, following the same semantics as
+     * {@link InventoryView#collect(AbstractInventory)}.
+     * @return the list of items in this snapshot
+     */
+    public @NotNull List<@NotNull ItemStack> toList() {
+        return Collections.unmodifiableList(Arrays.asList(items.clone()));
+    }
+
+}
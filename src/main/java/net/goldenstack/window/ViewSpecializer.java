@@ -0,0 +1,477 @@
+package net.goldenstack.window;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Generates a hidden class for the mapping of a view, as used by InventoryView#specialize.
+// The class has no fields: size() returns a constant, and each conversion is either a range check followed by an add
+//  or subtract (for views with consecutive external slots, in either direction) or a switch with a constant per case.
+// There's no class file API in Java 21, so the class file is written by hand. Every branch target in the generated
+//  methods has the same locals and an empty stack, so each stack map frame is just a same_frame.
+class ViewSpecializer {
+
+    // Keeps each switch well within the 64KiB limit on the size of a method's code
+    static final int MAX_SIZE = 4096;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String CLASS_NAME = ViewSpecializer.class.getPackageName().replace('.', '/') + "/SpecializedView";
+
+    private static final int ACC_PUBLIC = 0x0001, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+    private static final int ICONST_M1 = 0x02, ICONST_0 = 0x03, BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13,
+            ILOAD_1 = 0x1B, ILOAD_2 = 0x1C, ALOAD_0 = 0x2A, ISTORE_2 = 0x3D, IADD = 0x60, ISUB = 0x64, INEG = 0x74,
+            IFLT = 0x9B, IF_ICMPEQ = 0x9F, IF_ICMPGE = 0xA2, TABLESWITCH = 0xAA, LOOKUPSWITCH = 0xAB, IRETURN = 0xAC,
+            RETURN = 0xB1, INVOKEVIRTUAL = 0xB6, INVOKESPECIAL = 0xB7;
+
+    static @NotNull InventoryView specialize(@NotNull InventoryView view) {
+        final int size = view.size();
+        if (size > MAX_SIZE) {
+            return view.compile();
+        }
+
+        int[] localToExternal = InventoryViewImpl.resolve(view, 0, size);
+
+        // Only external slots that a local slot maps to are kept, so that the result matches compile()
+        int count = 0;
+        int[] externals = new int[size];
+        int[] locals = new int[size];
+        for (int external : localToExternal) {
+            int index = Arrays.binarySearch(externals, 0, count, external);
+            int local = external >= 0 ? view.externalToLocal(external) : -1;
+            if (local != -1 && index < 0) {
+                index = -index - 1;
+                System.arraycopy(externals, index, externals, index + 1, count - index);
+                System.arraycopy(locals, index, locals, index + 1, count - index);
+                externals[index] = external;
+                locals[index] = local;
+                count++;
+            }
+        }
+
+        final int mapped = count;
+        var writer = new ClassWriter();
+        writer.method("size", "()I", 1, 1, code -> {
+            code.push(size);
+            code.op(IRETURN);
+        });
+        writer.method("localToExternal", "(I)I", 3, 3, code -> mapping(code, localToExternal));
+        writer.method("externalToLocal", "(I)I", 3, 3, code -> inverse(code, size, localToExternal, externals, locals, mapped));
+        writer.method("isValidLocal", "(I)Z", 2, 2, code -> isMapped(code, writer, "localToExternal"));
+        writer.method("isValidExternal", "(I)Z", 2, 2, code -> isMapped(code, writer, "externalToLocal"));
+
+        try {
+            var hidden = LOOKUP.defineHiddenClass(writer.toByteArray(), true);
+            var constructor = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class));
+            var specialized = (InventoryView) constructor.invoke();
+            return InventoryViewImpl.inherit(specialized, view);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not define the specialized view!", e);
+        }
+    }
+
+    // Slots are valid exactly when they're mapped, so that views with unmapped slots (e.g. joins) match compile()
+    private static void isMapped(@NotNull Code code, @NotNull ClassWriter writer, @NotNull String conversion) {
+        // return conversion(slot) != -1;
+        var invalid = code.label();
+        code.op(ALOAD_0);
+        code.op(ILOAD_1);
+        code.op(INVOKEVIRTUAL);
+        code.u2(writer.selfMethod(conversion, "(I)I"));
+        code.op(ICONST_M1);
+        code.jump(IF_ICMPEQ, invalid);
+        code.push(1);
+        code.op(IRETURN);
+        code.bind(invalid);
+        code.push(0);
+        code.op(IRETURN);
+    }
+
+    // Returns the step between consecutive slots (1 or -1) if the slots are consecutive in either direction, or 0
+    private static int step(int @NotNull [] slots) {
+        if (slots.length < 2) {
+            return slots.length == 1 && slots[0] >= 0 ? 1 : 0;
+        }
+
+        int step = slots[1] - slots[0];
+        if (step != 1 && step != -1) {
+            return 0;
+        }
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] < 0 || slots[i] != slots[0] + step * i) {
+                return 0;
+            }
+        }
+        return step;
+    }
+
+    private static void mapping(@NotNull Code code, int @NotNull [] localToExternal) {
+        int step = step(localToExternal);
+        if (step != 0) {
+            // if (local < 0 || local >= size) return -1; return base + step * local;
+            var fail = code.label();
+            code.op(ILOAD_1);
+            code.jump(IFLT, fail);
+            code.op(ILOAD_1);
+            code.push(localToExternal.length);
+            code.jump(IF_ICMPGE, fail);
+            code.push(localToExternal[0]);
+            code.op(ILOAD_1);
+            code.op(step == 1 ? IADD : ISUB);
+            code.op(IRETURN);
+            code.bind(fail);
+            code.op(ICONST_M1);
+            code.op(IRETURN);
+            return;
+        }
+
+        int[] keys = new int[localToExternal.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        code.op(ILOAD_1);
+        code.switchOn(keys, localToExternal, keys.length);
+    }
+
+    private static void inverse(@NotNull Code code, int size, int @NotNull [] localToExternal,
+                                int @NotNull [] externals, int @NotNull [] locals, int count) {
+        int step = count == size ? step(localToExternal) : 0;
+        for (int i = 0; i < count && step != 0; i++) {
+            if (locals[i] != (externals[i] - localToExternal[0]) * step) {
+                step = 0; // The view doesn't invert its own mapping, so use its actual results
+            }
+        }
+        if (step != 0) {
+            // local = (external - base) * step; if (local < 0 || local >= size) return -1; return local;
+            var fail = code.label();
+            code.op(ILOAD_1);
+            code.push(localToExternal[0]);
+            code.op(ISUB);
+            if (step == -1) {
+                code.op(INEG);
+            }
+            code.op(ISTORE_2);
+            code.op(ILOAD_2);
+            code.jump(IFLT, fail);
+            code.op(ILOAD_2);
+            code.push(size);
+            code.jump(IF_ICMPGE, fail);
+            code.op(ILOAD_2);
+            code.op(IRETURN);
+            code.bind(fail);
+            code.op(ICONST_M1);
+            code.op(IRETURN);
+            return;
+        }
+
+        code.op(ILOAD_1);
+        code.switchOn(externals, locals, count);
+    }
+
+    private static final class ClassWriter {
+
+        private final ConstantPool pool = new ConstantPool();
+        private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+        private int methodCount = 0;
+
+        private final int thisClass = pool.classRef(CLASS_NAME);
+        private final int superClass = pool.classRef("java/lang/Object");
+        private final int viewInterface = pool.classRef(InventoryView.class.getName().replace('.', '/'));
+
+        ClassWriter() {
+            int objectInit = pool.methodRef(superClass, "<init>", "()V");
+            method("<init>", "()V", 1, 1, code -> {
+                code.op(ALOAD_0);
+                code.op(INVOKESPECIAL);
+                code.u2(objectInit);
+                code.op(RETURN);
+            });
+        }
+
+        int selfMethod(@NotNull String name, @NotNull String descriptor) {
+            return pool.methodRef(thisClass, name, descriptor);
+        }
+
+        void method(@NotNull String name, @NotNull String descriptor, int maxStack, int maxLocals,
+                    @NotNull Consumer<Code> body) {
+            var code = new Code(pool);
+            body.accept(code);
+            byte[] bytecode = code.resolve();
+            byte[] frames = code.stackMap();
+
+            try {
+                var out = new DataOutputStream(methods);
+                out.writeShort(ACC_PUBLIC | (name.equals("<init>") ? 0 : ACC_FINAL));
+                out.writeShort(pool.utf8(name));
+                out.writeShort(pool.utf8(descriptor));
+                out.writeShort(1); // Code
+
+                int stackMapLength = frames.length == 0 ? 0 : 8 + frames.length;
+                out.writeShort(pool.utf8("Code"));
+                out.writeInt(12 + bytecode.length + stackMapLength);
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(bytecode.length);
+                out.write(bytecode);
+                out.writeShort(0); // Exception table
+                out.writeShort(frames.length == 0 ? 0 : 1);
+                if (frames.length != 0) {
+                    out.writeShort(pool.utf8("StackMapTable"));
+                    out.writeInt(2 + frames.length);
+                    out.writeShort(code.frameCount());
+                    out.write(frames);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            methodCount++;
+        }
+
+        byte @NotNull [] toByteArray() {
+            try {
+                var bytes = new ByteArrayOutputStream();
+                var out = new DataOutputStream(bytes);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(65); // Java 21
+                pool.writeTo(out);
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(viewInterface);
+                out.writeShort(0); // Fields
+                out.writeShort(methodCount);
+                methods.writeTo(out);
+                out.writeShort(0); // Attributes
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<Object, Integer> entries = new HashMap<>();
+        private int next = 1;
+
+        private record Entry(int tag, Object value) {}
+
+        // Any entries that this one refers to must be added before it, so the map isn't modified while writing
+        private int entry(int tag, @NotNull Object value, @NotNull IOConsumer writer) {
+            var key = new Entry(tag, value);
+            var index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+
+            try {
+                out.writeByte(tag);
+                writer.write(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            entries.put(key, next);
+            return next++;
+        }
+
+        int utf8(@NotNull String value) {
+            return entry(1, value, out -> out.writeUTF(value));
+        }
+
+        int integer(int value) {
+            return entry(3, value, out -> out.writeInt(value));
+        }
+
+        int classRef(@NotNull String name) {
+            int utf8 = utf8(name);
+            return entry(7, name, out -> out.writeShort(utf8));
+        }
+
+        int methodRef(int owner, @NotNull String name, @NotNull String descriptor) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry(12, List.of(name, descriptor), out -> {
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry(10, List.of(owner, nameAndType), out -> {
+                out.writeShort(owner);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        void writeTo(@NotNull DataOutputStream target) throws IOException {
+            target.writeShort(next);
+            bytes.writeTo(target);
+        }
+
+        @FunctionalInterface
+        private interface IOConsumer {
+            void write(@NotNull DataOutputStream out) throws IOException;
+        }
+    }
+
+    // Bytecode for a method taking (this, int), with forward jumps to labels that are patched once the code is done
+    private static final class Code {
+
+        private final ConstantPool pool;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<int[]> patches = new ArrayList<>(); // {instruction, patch offset, label, width}
+        private final List<Integer> labels = new ArrayList<>();
+
+        Code(@NotNull ConstantPool pool) {
+            this.pool = pool;
+        }
+
+        int label() {
+            labels.add(-1);
+            return labels.size() - 1;
+        }
+
+        void bind(int label) {
+            labels.set(label, bytes.size());
+        }
+
+        void op(int opcode) {
+            bytes.write(opcode);
+        }
+
+        void u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+        }
+
+        void u4(int value) {
+            u2(value >>> 16);
+            u2(value & 0xFFFF);
+        }
+
+        void push(int value) {
+            if (value >= -1 && value <= 5) {
+                op(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                op(BIPUSH);
+                bytes.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                op(SIPUSH);
+                u2(value);
+            } else {
+                op(LDC_W);
+                u2(pool.integer(value));
+            }
+        }
+
+        void jump(int opcode, int label) {
+            int instruction = bytes.size();
+            op(opcode);
+            patches.add(new int[]{instruction, bytes.size(), label, 2});
+            u2(0);
+        }
+
+        // Switches on the int on the stack, returning values[i] for keys[i] (which are sorted), or -1 otherwise.
+        // Dense keys use a tableswitch, with holes going to the default case, and sparse keys use a lookupswitch.
+        void switchOn(int @NotNull [] keys, int @NotNull [] values, int count) {
+            if (count == 0) {
+                op(ICONST_M1);
+                op(IRETURN);
+                return;
+            }
+
+            var fail = label();
+            int[] cases = new int[count];
+            for (int i = 0; i < count; i++) {
+                cases[i] = label();
+            }
+
+            int instruction = bytes.size();
+            long range = (long) keys[count - 1] - keys[0] + 1;
+            boolean table = range <= 2L * count + 8;
+            op(table ? TABLESWITCH : LOOKUPSWITCH);
+            while (bytes.size() % 4 != 0) {
+                bytes.write(0);
+            }
+
+            patches.add(new int[]{instruction, bytes.size(), fail, 4});
+            u4(0);
+            if (table) {
+                u4(keys[0]);
+                u4(keys[count - 1]);
+                for (int i = 0, key = keys[0]; key <= keys[count - 1]; key++) {
+                    patches.add(new int[]{instruction, bytes.size(), key == keys[i] ? cases[i++] : fail, 4});
+                    u4(0);
+                }
+            } else {
+                u4(count);
+                for (int i = 0; i < count; i++) {
+                    u4(keys[i]);
+                    patches.add(new int[]{instruction, bytes.size(), cases[i], 4});
+                    u4(0);
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                bind(cases[i]);
+                push(values[i]);
+                op(IRETURN);
+            }
+            bind(fail);
+            op(ICONST_M1);
+            op(IRETURN);
+        }
+
+        byte @NotNull [] resolve() {
+            byte[] code = bytes.toByteArray();
+            for (int[] patch : patches) {
+                int offset = labels.get(patch[2]) - patch[0];
+                for (int i = 0; i < patch[3]; i++) {
+                    code[patch[1] + i] = (byte) (offset >>> (8 * (patch[3] - 1 - i)));
+                }
+            }
+            return code;
+        }
+
+        private int[] targets() {
+            return labels.stream().mapToInt(Integer::intValue).filter(label -> label >= 0).sorted().distinct().toArray();
+        }
+
+        int frameCount() {
+            return targets().length;
+        }
+
+        // Every target has the same frame as the start of the method, so each one is a same_frame
+        byte @NotNull [] stackMap() {
+            var frames = new ByteArrayOutputStream();
+            int previous = -1;
+            for (int target : targets()) {
+                int delta = target - previous - 1;
+                if (delta < 64) {
+                    frames.write(delta);
+                } else {
+                    frames.write(251); // same_frame_extended
+                    frames.write(delta >>> 8);
+                    frames.write(delta);
+                }
+                previous = target;
+            }
+            return frames.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package net.goldenstack.window;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectFunction;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.inventory.AbstractInventory;
+import net.minestom.server.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+
+/**
+ * A buffer of pending writes to an inventory, which can be made through any number of views and are only applied to
+ * the inventory when the buffer is flushed. Flushing sends either a single update of the whole window or an update for
+ * each changed slot to the viewers of the inventory, depending on which is smaller, instead of an update per write.<br>
+ * Pending writes that leave a slot unchanged are dropped when flushing. The slots are locked while flushing according
+ * to {@link LockStrategy#global()}, as writes from views with different strategies may be mixed together.<br>
+ * Buffers aren't thread-safe; each one should only be used by one thread at a time, such as the tick thread.
+ */
+public final class ViewWriteBuffer implements AutoCloseable {
+
+    // Each slot update repeats the window ID, state ID, and slot around its item, while the window update only sends
+    //  every item once, so it's smaller once roughly half of the slots have changed
+    private static final int FULL_UPDATE_DIVISOR = 2;
+
+    private final @NotNull AbstractInventory inv;
+    private final @NotNull ItemStack @NotNull [] pending;
+    private final @NotNull BitSet dirty = new BitSet();
+
+    private boolean scheduled = false;
+
+    /**
+     * Creates a new empty buffer of writes to the provided inventory.
+     * @param inv the inventory to write to
+     */
+    public ViewWriteBuffer(@NotNull AbstractInventory inv) {
+        this.inv = inv;
+        this.pending = new ItemStack[inv.getSize()];
+    }
+
+    /**
+     * Returns the inventory that this buffer writes to.
+     * @return the inventory of this buffer
+     */
+    public @NotNull AbstractInventory inventory() {
+        return inv;
+    }
+
+    /**
+     * Returns the number of slots that have pending writes, which includes writes that don't change their slot.
+     * @return the number of pending slots
+     */
+    public int pending() {
+        return dirty.cardinality();
+    }
+
+    /**
+     * Gets the item at the provided local slot ID of the provided view, including any pending write to it.
+     * @param view the view to read through
+     * @param localSlot the specific local slot to read
+     * @return the item at the slot after flushing
+     */
+    public @NotNull ItemStack get(@NotNull InventoryView view, int localSlot) {
+        int slot = external(view, localSlot);
+        return dirty.get(slot) ? pending[slot] : inv.getItemStack(slot);
+    }
+
+    /**
+     * Sets the item at the provided local slot ID of the provided view once this buffer is flushed. Later writes to the
+     * same slot, through any view, replace earlier ones.
+     * @param view the view to write through
+     * @param localSlot the specific local slot to write
+     * @param item the item to set the slot to
+     */
+    public void set(@NotNull InventoryView view, int localSlot, @NotNull ItemStack item) {
+        int slot = external(view, localSlot);
+        pending[slot] = item;
+        dirty.set(slot);
+    }
+
+    /**
+     * Fills the provided view with items once this buffer is flushed, following the same semantics as
+     * {@link InventoryView#fill(AbstractInventory, Int2ObjectFunction)}.
+     * @param view the view to write through
+     * @param filler the function that provides items for each slot
+     */
+    public void fill(@NotNull InventoryView view, @NotNull Int2ObjectFunction<@NotNull ItemStack> filler) {
+        for (int slot = 0; slot < view.size(); slot++) {
+            set(view, slot, filler.apply(slot));
+        }
+    }
+
+    /**
+     * Schedules this buffer to be flushed at the end of the current tick, if it isn't already scheduled.
+     */
+    public void flushAtEndOfTick() {
+        if (!scheduled) {
+            scheduled = true;
+            MinecraftServer.getSchedulerManager().scheduleEndOfTick(this::flush);
+        }
+    }
+
+    /**
+     * Applies every pending write to the inventory and clears this buffer.
+     * @return the number of slots that were changed
+     */
+    public int flush() {
+        scheduled = false;
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        int[] slots = dirty.stream().toArray();
+        int changed = LockStrategyImpl.lock(LockStrategy.global(), inv, slots, () -> {
+            // Drop writes that wouldn't change anything first, so that they don't count towards a full update
+            for (int slot : slots) {
+                if (InventoryViewImpl.same(inv.getItemStack(slot), pending[slot])) {
+                    dirty.clear(slot);
+                }
+            }
+
+            int count = dirty.cardinality();
+            boolean full = count >= inv.getSize() / FULL_UPDATE_DIVISOR;
+            for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+                inv.setItemStack(slot, pending[slot], !full);
+            }
+            if (full) {
+                inv.update();
+            }
+            return count;
+        });
+
+        dirty.clear();
+        for (int slot : slots) {
+            pending[slot] = null;
+        }
+        return changed;
+    }
+
+    /**
+     * Discards every pending write without applying it.
+     */
+    public void discard() {
+        for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+            pending[slot] = null;
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Flushes this buffer, so that it can be used in a try-with-resources statement as a batch.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private int external(@NotNull InventoryView view, int localSlot) {
+        int slot = view.localToExternal(localSlot);
+        if (slot < 0 || slot >= pending.length) {
+            throw new IllegalArgumentException("Local slot " + localSlot + " is not mapped to a slot in the inventory!");
+        }
+        return slot;
+    }
+
+}
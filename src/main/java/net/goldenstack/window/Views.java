@@ -1,17 +1,30 @@
 package net.goldenstack.window;
 
+import net.minestom.server.inventory.InventoryType;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Stores commonly-used views of Minecraft inventories, for version 1.20.4.
+ * Stores commonly-used views of Minecraft inventories, for the version of Minecraft that the supported version of
+ * Minestom targets (currently 1.21.8).<br>
+ * Each layout is only created when it's first used, e.g. via its method (like {@link #player()}) or
+ * {@link #forType(InventoryType)}, so using one layout doesn't create any of the others.
  */
 @SuppressWarnings("unused")
 public interface Views {
 
-    @NotNull Anvil ANVIL = new Anvil();
+    /**
+     * Returns the layout of the provided inventory type: the record in this interface for it, if there is one (e.g.
+     * {@link #chest()} for {@link InventoryType#CHEST_3_ROW}), and otherwise a contiguous view over every slot of the
+     * inventory. The lookup is constant time, so it's suitable for handling every opened inventory.
+     * @param type the type of the inventory
+     * @return the layout of the inventory type, which has the same size as it
+     */
+    static @NotNull InventoryView forType(@NotNull InventoryType type) {
+        return ViewsImpl.forType(type);
+    }
 
     static @NotNull Anvil anvil() {
-        return Views.ANVIL;
+        return ViewsImpl.AnvilHolder.INSTANCE;
     }
 
     /**
@@ -24,7 +37,7 @@ public interface Views {
     record Anvil(@NotNull InventoryView view,
                  @NotNull InventoryView.Singular input,
                  @NotNull InventoryView.Singular modifier,
-                 @NotNull InventoryView.Singular output) implements DelegateView {
+                 @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull InventoryView.Singular INPUT = Anvil.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular MODIFIER = Anvil.VIEW.fork(1);
@@ -35,10 +48,8 @@ public interface Views {
         }
     }
 
-    @NotNull Barrel BARREL = new Barrel();
-
     static @NotNull Barrel barrel() {
-        return Views.BARREL;
+        return ViewsImpl.BarrelHolder.INSTANCE;
     }
 
     /**
@@ -47,7 +58,7 @@ public interface Views {
      * @param storage {@link Barrel#VIEW} slots 0 to 27
      */
     record Barrel(@NotNull InventoryView view,
-                  @NotNull InventoryView storage) implements DelegateView {
+                  @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 27);
         public static final @NotNull InventoryView STORAGE = Barrel.VIEW.forkRange(0, 27);
 
@@ -56,10 +67,8 @@ public interface Views {
         }
     }
 
-    @NotNull Beacon BEACON = new Beacon();
-
     static @NotNull Beacon beacon() {
-        return Views.BEACON;
+        return ViewsImpl.BeaconHolder.INSTANCE;
     }
 
     /**
@@ -68,7 +77,7 @@ public interface Views {
      * @param sacrifice {@link Beacon#VIEW} slot 0
      */
     record Beacon(@NotNull InventoryView view,
-                  @NotNull InventoryView.Singular sacrifice) implements DelegateView {
+                  @NotNull InventoryView.Singular sacrifice) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.singular(0);
         public static final @NotNull InventoryView.Singular SACRIFICE = Beacon.VIEW.fork(0);
 
@@ -77,10 +86,8 @@ public interface Views {
         }
     }
 
-    @NotNull BlastFurnace BLAST_FURNACE = new BlastFurnace();
-
     static @NotNull BlastFurnace blastFurnace() {
-        return Views.BLAST_FURNACE;
+        return ViewsImpl.BlastFurnaceHolder.INSTANCE;
     }
 
     /**
@@ -93,7 +100,7 @@ public interface Views {
     record BlastFurnace(@NotNull InventoryView view,
                         @NotNull InventoryView.Singular input,
                         @NotNull InventoryView.Singular fuel,
-                        @NotNull InventoryView.Singular output) implements DelegateView {
+                        @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull InventoryView.Singular INPUT = BlastFurnace.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular FUEL = BlastFurnace.VIEW.fork(1);
@@ -104,10 +111,8 @@ public interface Views {
         }
     }
 
-    @NotNull BrewingStand BREWING_STAND = new BrewingStand();
-
     static @NotNull BrewingStand brewingStand() {
-        return Views.BREWING_STAND;
+        return ViewsImpl.BrewingStandHolder.INSTANCE;
     }
 
     /**
@@ -120,7 +125,7 @@ public interface Views {
     record BrewingStand(@NotNull InventoryView view,
                         @NotNull InventoryView bottles,
                         @NotNull InventoryView.Singular ingredient,
-                        @NotNull InventoryView.Singular fuel) implements DelegateView {
+                        @NotNull InventoryView.Singular fuel) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 5);
         public static final @NotNull InventoryView BOTTLES = BrewingStand.VIEW.forkRange(0, 3);
         public static final @NotNull InventoryView.Singular INGREDIENT = BrewingStand.VIEW.fork(3);
@@ -131,10 +136,8 @@ public interface Views {
         }
     }
 
-    @NotNull CartographyTable CARTOGRAPHY_TABLE = new CartographyTable();
-
     static @NotNull CartographyTable cartographyTable() {
-        return Views.CARTOGRAPHY_TABLE;
+        return ViewsImpl.CartographyTableHolder.INSTANCE;
     }
 
     /**
@@ -147,7 +150,7 @@ public interface Views {
     record CartographyTable(@NotNull InventoryView view,
                             @NotNull InventoryView.Singular input,
                             @NotNull InventoryView.Singular modifier,
-                            @NotNull InventoryView.Singular output) implements DelegateView {
+                            @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull InventoryView.Singular INPUT = CartographyTable.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular MODIFIER = CartographyTable.VIEW.fork(1);
@@ -158,10 +161,8 @@ public interface Views {
         }
     }
 
-    @NotNull Chest CHEST = new Chest();
-
     static @NotNull Chest chest() {
-        return Views.CHEST;
+        return ViewsImpl.ChestHolder.INSTANCE;
     }
 
     /**
@@ -170,7 +171,7 @@ public interface Views {
      * @param storage {@link Chest#VIEW} slots 0 to 27
      */
     record Chest(@NotNull InventoryView view,
-                 @NotNull InventoryView storage) implements DelegateView {
+                 @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 27);
         public static final @NotNull InventoryView STORAGE = Chest.VIEW.forkRange(0, 27);
 
@@ -179,10 +180,8 @@ public interface Views {
         }
     }
 
-    @NotNull CraftingTable CRAFTING_TABLE = new CraftingTable();
-
     static @NotNull CraftingTable craftingTable() {
-        return Views.CRAFTING_TABLE;
+        return ViewsImpl.CraftingTableHolder.INSTANCE;
     }
 
     /**
@@ -193,7 +192,7 @@ public interface Views {
      */
     record CraftingTable(@NotNull InventoryView view,
                          @NotNull InventoryView.Singular output,
-                         @NotNull InventoryView input) implements DelegateView {
+                         @NotNull InventoryView input) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 10);
         public static final @NotNull InventoryView.Singular OUTPUT = CraftingTable.VIEW.fork(0);
         public static final @NotNull InventoryView INPUT = CraftingTable.VIEW.forkRange(1, 10);
@@ -203,10 +202,8 @@ public interface Views {
         }
     }
 
-    @NotNull Dispenser DISPENSER = new Dispenser();
-
     static @NotNull Dispenser dispenser() {
-        return Views.DISPENSER;
+        return ViewsImpl.DispenserHolder.INSTANCE;
     }
 
     /**
@@ -215,7 +212,7 @@ public interface Views {
      * @param storage {@link Dispenser#VIEW} slots 0 to 9
      */
     record Dispenser(@NotNull InventoryView view,
-                     @NotNull InventoryView storage) implements DelegateView {
+                     @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 9);
         public static final @NotNull InventoryView STORAGE = Dispenser.VIEW.forkRange(0, 9);
 
@@ -224,10 +221,8 @@ public interface Views {
         }
     }
 
-    @NotNull DoubleChest DOUBLE_CHEST = new DoubleChest();
-
     static @NotNull DoubleChest doubleChest() {
-        return Views.DOUBLE_CHEST;
+        return ViewsImpl.DoubleChestHolder.INSTANCE;
     }
 
     /**
@@ -236,7 +231,7 @@ public interface Views {
      * @param storage {@link DoubleChest#VIEW} slots 0 to 54
      */
     record DoubleChest(@NotNull InventoryView view,
-                       @NotNull InventoryView storage) implements DelegateView {
+                       @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 54);
         public static final @NotNull InventoryView STORAGE = DoubleChest.VIEW.forkRange(0, 54);
 
@@ -245,10 +240,8 @@ public interface Views {
         }
     }
 
-    @NotNull Dropper DROPPER = new Dropper();
-
     static @NotNull Dropper dropper() {
-        return Views.DROPPER;
+        return ViewsImpl.DropperHolder.INSTANCE;
     }
 
     /**
@@ -257,7 +250,7 @@ public interface Views {
      * @param storage {@link Dropper#VIEW} slots 0 to 9
      */
     record Dropper(@NotNull InventoryView view,
-                   @NotNull InventoryView storage) implements DelegateView {
+                   @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 9);
         public static final @NotNull InventoryView STORAGE = Dropper.VIEW.forkRange(0, 9);
 
@@ -266,10 +259,8 @@ public interface Views {
         }
     }
 
-    @NotNull EnchantingTable ENCHANTING_TABLE = new EnchantingTable();
-
     static @NotNull EnchantingTable enchantingTable() {
-        return Views.ENCHANTING_TABLE;
+        return ViewsImpl.EnchantingTableHolder.INSTANCE;
     }
 
     /**
@@ -280,7 +271,7 @@ public interface Views {
      */
     record EnchantingTable(@NotNull InventoryView view,
                            @NotNull InventoryView.Singular item,
-                           @NotNull InventoryView.Singular fuel) implements DelegateView {
+                           @NotNull InventoryView.Singular fuel) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 2);
         public static final @NotNull InventoryView.Singular ITEM = EnchantingTable.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular FUEL = EnchantingTable.VIEW.fork(1);
@@ -290,10 +281,8 @@ public interface Views {
         }
     }
 
-    @NotNull EnderChest ENDER_CHEST = new EnderChest();
-
     static @NotNull EnderChest enderChest() {
-        return Views.ENDER_CHEST;
+        return ViewsImpl.EnderChestHolder.INSTANCE;
     }
 
     /**
@@ -302,7 +291,7 @@ public interface Views {
      * @param storage {@link EnderChest#VIEW} slots 0 to 27
      */
     record EnderChest(@NotNull InventoryView view,
-                      @NotNull InventoryView storage) implements DelegateView {
+                      @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 27);
         public static final @NotNull InventoryView STORAGE = EnderChest.VIEW.forkRange(0, 27);
 
@@ -311,10 +300,8 @@ public interface Views {
         }
     }
 
-    @NotNull Furnace FURNACE = new Furnace();
-
     static @NotNull Furnace furnace() {
-        return Views.FURNACE;
+        return ViewsImpl.FurnaceHolder.INSTANCE;
     }
 
     /**
@@ -327,7 +314,7 @@ public interface Views {
     record Furnace(@NotNull InventoryView view,
                    @NotNull InventoryView.Singular input,
                    @NotNull InventoryView.Singular fuel,
-                   @NotNull InventoryView.Singular output) implements DelegateView {
+                   @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull InventoryView.Singular INPUT = Furnace.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular FUEL = Furnace.VIEW.fork(1);
@@ -338,10 +325,8 @@ public interface Views {
         }
     }
 
-    @NotNull Grindstone GRINDSTONE = new Grindstone();
-
     static @NotNull Grindstone grindstone() {
-        return Views.GRINDSTONE;
+        return ViewsImpl.GrindstoneHolder.INSTANCE;
     }
 
     /**
@@ -352,7 +337,7 @@ public interface Views {
      */
     record Grindstone(@NotNull InventoryView view,
                       @NotNull InventoryView input,
-                      @NotNull InventoryView.Singular output) implements DelegateView {
+                      @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull InventoryView INPUT = Grindstone.VIEW.forkRange(0, 2);
         public static final @NotNull InventoryView.Singular OUTPUT = Grindstone.VIEW.fork(2);
@@ -362,10 +347,8 @@ public interface Views {
         }
     }
 
-    @NotNull Hopper HOPPER = new Hopper();
-
     static @NotNull Hopper hopper() {
-        return Views.HOPPER;
+        return ViewsImpl.HopperHolder.INSTANCE;
     }
 
     /**
@@ -374,7 +357,7 @@ public interface Views {
      * @param storage {@link Hopper#VIEW} slots 0 to 5
      */
     record Hopper(@NotNull InventoryView view,
-                  @NotNull InventoryView storage) implements DelegateView {
+                  @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 5);
         public static final @NotNull InventoryView STORAGE = Hopper.VIEW.forkRange(0, 5);
 
@@ -383,10 +366,8 @@ public interface Views {
         }
     }
 
-    @NotNull Lectern LECTERN = new Lectern();
-
     static @NotNull Lectern lectern() {
-        return Views.LECTERN;
+        return ViewsImpl.LecternHolder.INSTANCE;
     }
 
     /**
@@ -395,7 +376,7 @@ public interface Views {
      * @param book {@link Lectern#VIEW} slot 0
      */
     record Lectern(@NotNull InventoryView view,
-                   @NotNull InventoryView.Singular book) implements DelegateView {
+                   @NotNull InventoryView.Singular book) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.singular(0);
         public static final @NotNull InventoryView.Singular BOOK = Lectern.VIEW.fork(0);
 
@@ -404,10 +385,8 @@ public interface Views {
         }
     }
 
-    @NotNull Loom LOOM = new Loom();
-
     static @NotNull Loom loom() {
-        return Views.LOOM;
+        return ViewsImpl.LoomHolder.INSTANCE;
     }
 
     /**
@@ -422,7 +401,7 @@ public interface Views {
                 @NotNull InventoryView.Singular banner,
                 @NotNull InventoryView.Singular color,
                 @NotNull InventoryView.Singular pattern,
-                @NotNull InventoryView.Singular output) implements DelegateView {
+                @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 4);
         public static final @NotNull InventoryView.Singular BANNER = Loom.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular COLOR = Loom.VIEW.fork(1);
@@ -434,10 +413,8 @@ public interface Views {
         }
     }
 
-    @NotNull Merchant MERCHANT = new Merchant();
-
     static @NotNull Merchant merchant() {
-        return Views.MERCHANT;
+        return ViewsImpl.MerchantHolder.INSTANCE;
     }
 
     /**
@@ -448,7 +425,7 @@ public interface Views {
      */
     record Merchant(@NotNull InventoryView view,
                     @NotNull Input input,
-                    @NotNull InventoryView.Singular output) implements DelegateView {
+                    @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull Input INPUT = new Input();
         public static final @NotNull InventoryView.Singular OUTPUT = Merchant.VIEW.fork(2);
@@ -465,7 +442,7 @@ public interface Views {
          */
         public record Input(@NotNull InventoryView view,
                             @NotNull InventoryView.Singular left,
-                            @NotNull InventoryView.Singular right) implements DelegateView {
+                            @NotNull InventoryView.Singular right) implements DelegateView, ViewsImpl.Layout {
             public static final @NotNull InventoryView VIEW = Merchant.VIEW.forkRange(0, 2);
             public static final @NotNull InventoryView.Singular LEFT = Input.VIEW.fork(0);
             public static final @NotNull InventoryView.Singular RIGHT = Input.VIEW.fork(1);
@@ -476,10 +453,8 @@ public interface Views {
         }
     }
 
-    @NotNull Player PLAYER = new Player();
-
     static @NotNull Player player() {
-        return Views.PLAYER;
+        return ViewsImpl.PlayerHolder.INSTANCE;
     }
 
     /**
@@ -494,7 +469,7 @@ public interface Views {
                   @NotNull Contents contents,
                   @NotNull Crafting crafting,
                   @NotNull Armor armor,
-                  @NotNull InventoryView.Singular offhand) implements DelegateView {
+                  @NotNull InventoryView.Singular offhand) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 46);
         public static final @NotNull Contents CONTENTS = new Contents();
         public static final @NotNull Crafting CRAFTING = new Crafting();
@@ -513,7 +488,7 @@ public interface Views {
          */
         public record Contents(@NotNull InventoryView view,
                                @NotNull InventoryView hotbar,
-                               @NotNull InventoryView storage) implements DelegateView {
+                               @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
             public static final @NotNull InventoryView VIEW = Player.VIEW.forkRange(0, 36);
             public static final @NotNull InventoryView HOTBAR = Contents.VIEW.forkRange(0, 9);
             public static final @NotNull InventoryView STORAGE = Contents.VIEW.forkRange(9, 36);
@@ -531,7 +506,7 @@ public interface Views {
          */
         public record Crafting(@NotNull InventoryView view,
                                @NotNull InventoryView.Singular output,
-                               @NotNull InventoryView input) implements DelegateView {
+                               @NotNull InventoryView input) implements DelegateView, ViewsImpl.Layout {
             public static final @NotNull InventoryView VIEW = Player.VIEW.forkRange(36, 41);
             public static final @NotNull InventoryView.Singular OUTPUT = Crafting.VIEW.fork(0);
             public static final @NotNull InventoryView INPUT = Crafting.VIEW.forkRange(1, 5);
@@ -553,7 +528,7 @@ public interface Views {
                             @NotNull InventoryView.Singular helmet,
                             @NotNull InventoryView.Singular chestplate,
                             @NotNull InventoryView.Singular leggings,
-                            @NotNull InventoryView.Singular boots) implements DelegateView {
+                            @NotNull InventoryView.Singular boots) implements DelegateView, ViewsImpl.Layout {
             public static final @NotNull InventoryView VIEW = Player.VIEW.forkRange(41, 45);
             public static final @NotNull InventoryView.Singular HELMET = Armor.VIEW.fork(0);
             public static final @NotNull InventoryView.Singular CHESTPLATE = Armor.VIEW.fork(1);
@@ -566,10 +541,8 @@ public interface Views {
         }
     }
 
-    @NotNull ShulkerBox SHULKER_BOX = new ShulkerBox();
-
     static @NotNull ShulkerBox shulkerBox() {
-        return Views.SHULKER_BOX;
+        return ViewsImpl.ShulkerBoxHolder.INSTANCE;
     }
 
     /**
@@ -578,7 +551,7 @@ public interface Views {
      * @param storage {@link ShulkerBox#VIEW} slots 0 to 27
      */
     record ShulkerBox(@NotNull InventoryView view,
-                      @NotNull InventoryView storage) implements DelegateView {
+                      @NotNull InventoryView storage) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 27);
         public static final @NotNull InventoryView STORAGE = ShulkerBox.VIEW.forkRange(0, 27);
 
@@ -587,10 +560,8 @@ public interface Views {
         }
     }
 
-    @NotNull Smithing SMITHING = new Smithing();
-
     static @NotNull Smithing smithing() {
-        return Views.SMITHING;
+        return ViewsImpl.SmithingHolder.INSTANCE;
     }
 
     /**
@@ -605,7 +576,7 @@ public interface Views {
                     @NotNull InventoryView.Singular template,
                     @NotNull InventoryView.Singular base,
                     @NotNull InventoryView.Singular addition,
-                    @NotNull InventoryView.Singular output) implements DelegateView {
+                    @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 4);
         public static final @NotNull InventoryView.Singular TEMPLATE = Smithing.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular BASE = Smithing.VIEW.fork(1);
@@ -617,10 +588,8 @@ public interface Views {
         }
     }
 
-    @NotNull Smoker SMOKER = new Smoker();
-
     static @NotNull Smoker smoker() {
-        return Views.SMOKER;
+        return ViewsImpl.SmokerHolder.INSTANCE;
     }
 
     /**
@@ -633,7 +602,7 @@ public interface Views {
     record Smoker(@NotNull InventoryView view,
                   @NotNull InventoryView.Singular input,
                   @NotNull InventoryView.Singular fuel,
-                  @NotNull InventoryView.Singular output) implements DelegateView {
+                  @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 3);
         public static final @NotNull InventoryView.Singular INPUT = Smoker.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular FUEL = Smoker.VIEW.fork(1);
@@ -644,10 +613,8 @@ public interface Views {
         }
     }
 
-    @NotNull Stonecutter STONECUTTER = new Stonecutter();
-
     static @NotNull Stonecutter stonecutter() {
-        return Views.STONECUTTER;
+        return ViewsImpl.StonecutterHolder.INSTANCE;
     }
 
     /**
@@ -658,7 +625,7 @@ public interface Views {
      */
     record Stonecutter(@NotNull InventoryView view,
                        @NotNull InventoryView.Singular input,
-                       @NotNull InventoryView.Singular output) implements DelegateView {
+                       @NotNull InventoryView.Singular output) implements DelegateView, ViewsImpl.Layout {
         public static final @NotNull InventoryView VIEW = InventoryView.contiguous(0, 2);
         public static final @NotNull InventoryView.Singular INPUT = Stonecutter.VIEW.fork(0);
         public static final @NotNull InventoryView.Singular OUTPUT = Stonecutter.VIEW.fork(1);
@@ -0,0 +1,162 @@
+package net.goldenstack.window;
+
+import net.minestom.server.inventory.InventoryType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+class ViewsImpl {
+
+    // Marks the records in Views, which map slots exactly like the views that they wrap, so they can be unwrapped
+    //  internally; other implementations of Views.DelegateView may override any method, so they're used as is
+    interface Layout extends Views.DelegateView {
+        @Override
+        default void forEachSlot(InventoryView.@NotNull SlotConsumer action) {
+            view().forEachSlot(action);
+        }
+    }
+
+    // Each layout is created when its holder is first initialized, which is when it's first used, so touching one
+    //  layout doesn't create any of the others. The layouts are already flat (see the factory methods in
+    //  InventoryView), so they're used as is rather than being compiled.
+
+    static final class AnvilHolder {
+        static final @NotNull Views.Anvil INSTANCE = new Views.Anvil();
+    }
+
+    static final class BarrelHolder {
+        static final @NotNull Views.Barrel INSTANCE = new Views.Barrel();
+    }
+
+    static final class BeaconHolder {
+        static final @NotNull Views.Beacon INSTANCE = new Views.Beacon();
+    }
+
+    static final class BlastFurnaceHolder {
+        static final @NotNull Views.BlastFurnace INSTANCE = new Views.BlastFurnace();
+    }
+
+    static final class BrewingStandHolder {
+        static final @NotNull Views.BrewingStand INSTANCE = new Views.BrewingStand();
+    }
+
+    static final class CartographyTableHolder {
+        static final @NotNull Views.CartographyTable INSTANCE = new Views.CartographyTable();
+    }
+
+    static final class ChestHolder {
+        static final @NotNull Views.Chest INSTANCE = new Views.Chest();
+    }
+
+    static final class CraftingTableHolder {
+        static final @NotNull Views.CraftingTable INSTANCE = new Views.CraftingTable();
+    }
+
+    static final class DispenserHolder {
+        static final @NotNull Views.Dispenser INSTANCE = new Views.Dispenser();
+    }
+
+    static final class DoubleChestHolder {
+        static final @NotNull Views.DoubleChest INSTANCE = new Views.DoubleChest();
+    }
+
+    static final class DropperHolder {
+        static final @NotNull Views.Dropper INSTANCE = new Views.Dropper();
+    }
+
+    static final class EnchantingTableHolder {
+        static final @NotNull Views.EnchantingTable INSTANCE = new Views.EnchantingTable();
+    }
+
+    static final class EnderChestHolder {
+        static final @NotNull Views.EnderChest INSTANCE = new Views.EnderChest();
+    }
+
+    static final class FurnaceHolder {
+        static final @NotNull Views.Furnace INSTANCE = new Views.Furnace();
+    }
+
+    static final class GrindstoneHolder {
+        static final @NotNull Views.Grindstone INSTANCE = new Views.Grindstone();
+    }
+
+    static final class HopperHolder {
+        static final @NotNull Views.Hopper INSTANCE = new Views.Hopper();
+    }
+
+    static final class LecternHolder {
+        static final @NotNull Views.Lectern INSTANCE = new Views.Lectern();
+    }
+
+    static final class LoomHolder {
+        static final @NotNull Views.Loom INSTANCE = new Views.Loom();
+    }
+
+    static final class MerchantHolder {
+        static final @NotNull Views.Merchant INSTANCE = new Views.Merchant();
+    }
+
+    static final class PlayerHolder {
+        static final @NotNull Views.Player INSTANCE = new Views.Player();
+    }
+
+    static final class ShulkerBoxHolder {
+        static final @NotNull Views.ShulkerBox INSTANCE = new Views.ShulkerBox();
+    }
+
+    static final class SmithingHolder {
+        static final @NotNull Views.Smithing INSTANCE = new Views.Smithing();
+    }
+
+    static final class SmokerHolder {
+        static final @NotNull Views.Smoker INSTANCE = new Views.Smoker();
+    }
+
+    static final class StonecutterHolder {
+        static final @NotNull Views.Stonecutter INSTANCE = new Views.Stonecutter();
+    }
+
+    // Types without a record in Views (e.g. chests with other numbers of rows) are a single contiguous section
+    private static final Map<InventoryType, Supplier<InventoryView>> LAYOUTS = new EnumMap<>(InventoryType.class);
+
+    static {
+        LAYOUTS.put(InventoryType.ANVIL, () -> AnvilHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.BEACON, () -> BeaconHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.BLAST_FURNACE, () -> BlastFurnaceHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.BREWING_STAND, () -> BrewingStandHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.CARTOGRAPHY, () -> CartographyTableHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.CHEST_3_ROW, () -> ChestHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.CHEST_6_ROW, () -> DoubleChestHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.CRAFTING, () -> CraftingTableHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.ENCHANTMENT, () -> EnchantingTableHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.FURNACE, () -> FurnaceHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.GRINDSTONE, () -> GrindstoneHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.HOPPER, () -> HopperHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.LECTERN, () -> LecternHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.LOOM, () -> LoomHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.MERCHANT, () -> MerchantHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.SHULKER_BOX, () -> ShulkerBoxHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.SMITHING, () -> SmithingHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.SMOKER, () -> SmokerHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.STONE_CUTTER, () -> StonecutterHolder.INSTANCE);
+        LAYOUTS.put(InventoryType.WINDOW_3X3, () -> DispenserHolder.INSTANCE);
+    }
+
+    static @NotNull InventoryView forType(@NotNull InventoryType type) {
+        var layout = LAYOUTS.get(type);
+        return layout != null ? layout.get() : ContiguousHolder.VIEWS[type.ordinal()];
+    }
+
+    private static final class ContiguousHolder {
+        static final InventoryView @NotNull [] VIEWS = new InventoryView[InventoryType.values().length];
+
+        static {
+            for (var type : InventoryType.values()) {
+                VIEWS[type.ordinal()] = InventoryView.contiguous(0, type.getSize());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,713 @@
+package net.goldenstack.window.test;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.goldenstack.window.InventoryIndex;
+import net.goldenstack.window.InventoryView;
+import net.goldenstack.window.LockStrategy;
+import net.goldenstack.window.RecordingViewMetrics;
+import net.goldenstack.window.ViewMetrics;
+import net.goldenstack.window.ViewWriteBuffer;
+import net.goldenstack.window.Views;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.event.EventListener;
+import net.minestom.server.event.inventory.InventoryItemChangeEvent;
+import net.minestom.server.inventory.AbstractInventory;
+import net.minestom.server.inventory.Inventory;
+import net.minestom.server.inventory.InventoryType;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.Material;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViewInventoryTest {
+
+    @BeforeAll
+    public static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    public void testBulkGetSet() {
+        var inv = new Inventory(InventoryType.CHEST_6_ROW, "test");
+        var view = InventoryView.contiguous(10, 20).reverse();
+
+        view.setAll(inv, new int[]{0, 3}, new ItemStack[]{stone(1), stone(2)});
+        assertEquals(stone(1), inv.getItemStack(19));
+        assertEquals(stone(2), inv.getItemStack(16));
+
+        var out = new ItemStack[2];
+        view.getAll(inv, new int[]{3, 0}, out);
+        assertArrayEquals(new ItemStack[]{stone(2), stone(1)}, out);
+
+        view.setRange(inv, 4, 6, new ItemStack[]{stone(3), stone(4)});
+        assertEquals(stone(3), inv.getItemStack(15));
+        assertEquals(stone(4), inv.getItemStack(14));
+
+        var range = new ItemStack[3];
+        view.getRange(inv, 3, 6, range);
+        assertArrayEquals(new ItemStack[]{stone(2), stone(3), stone(4)}, range);
+
+        assertThrows(IllegalArgumentException.class, () -> view.setAll(inv, new int[]{0}, new ItemStack[0]));
+        assertThrows(IllegalArgumentException.class, () -> view.getRange(inv, 0, 2, new ItemStack[1]));
+
+        var storage = Views.doubleChest().storage();
+        storage.fill(inv, slot -> stone(slot + 1));
+        assertEquals(stone(54), inv.getItemStack(53));
+        assertEquals(storage.size(), storage.collect(inv).size());
+        assertEquals(stone(20), storage.collect(inv).get(19));
+
+        storage.clear(inv);
+        assertTrue(storage.collect(inv).stream().allMatch(ItemStack::isAir));
+    }
+
+    @Test
+    public void testStreams() {
+        var inv = new Inventory(InventoryType.CHEST_6_ROW, "test");
+        var view = Views.doubleChest().storage();
+
+        view.parallelFill(inv, slot -> stone(slot + 1));
+        assertEquals(view.collect(inv), view.stream(inv).toList());
+        assertEquals(view.collect(inv), view.stream(inv).parallel().toList());
+        assertEquals(54 * 55 / 2, view.stream(inv).parallel().mapToInt(ItemStack::amount).sum());
+    }
+
+    @Test
+    public void testQueries() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        var view = InventoryView.contiguous(2, 6);
+        inv.setItemStack(0, stone(64)); // Outside of the view
+        inv.setItemStack(3, stone(60));
+        inv.setItemStack(4, ItemStack.of(Material.DIRT, 10));
+        inv.setItemStack(5, stone(2));
+
+        assertEquals(62, view.count(inv, Material.STONE));
+        assertEquals(10, view.count(inv, item -> item.material() == Material.DIRT));
+        assertEquals(1, view.indexOf(inv, item -> item.material() == Material.STONE));
+        assertEquals(-1, view.indexOf(inv, item -> item.material() == Material.DIAMOND));
+        assertTrue(view.contains(inv, item -> item.material() == Material.DIRT));
+        assertEquals(0, view.firstEmpty(inv));
+        assertEquals(64 + 4 + 62, view.remainingCapacity(inv, stone(1)));
+
+        inv.setItemStack(2, stone(1));
+        assertEquals(-1, view.firstEmpty(inv));
+        assertEquals(63 + 4 + 62, view.remainingCapacity(inv, stone(1)));
+    }
+
+    @Test
+    public void testIndex() {
+        var inv = new Inventory(InventoryType.CHEST_6_ROW, "test");
+        inv.setItemStack(40, stone(10));
+
+        var index = InventoryIndex.attach(inv);
+        assertSame(index, InventoryIndex.attach(inv));
+        assertEquals(BitSet.valueOf(new long[]{1L << 40}), index.slots(Material.STONE));
+
+        var view = InventoryView.contiguous(9, 54).reverse();
+        inv.setItemStack(10, stone(5));
+        inv.setItemStack(20, ItemStack.of(Material.DIRT));
+        inv.setItemStack(0, stone(64)); // Outside of the view
+        assertEquals(15, view.count(inv, Material.STONE));
+
+        // Slots are merged into in local slot order, which is reversed here
+        assertEquals(ItemStack.AIR, view.add(inv, stone(60)));
+        assertEquals(stone(64), inv.getItemStack(40));
+        assertEquals(stone(11), inv.getItemStack(10));
+        assertEquals(ItemStack.AIR, view.add(inv, ItemStack.of(Material.DIAMOND)));
+        assertEquals(ItemStack.of(Material.DIAMOND), inv.getItemStack(53));
+        assertTrue(index.slots(Material.DIAMOND).get(53));
+
+        inv.setItemStack(40, ItemStack.AIR);
+        assertFalse(index.slots(Material.STONE).get(40));
+
+        index.detach();
+        assertNull(InventoryIndex.get(inv));
+        inv.setItemStack(41, stone(1));
+        assertEquals(12, view.count(inv, Material.STONE));
+    }
+
+    @Test
+    public void testIndexEmptySlots() {
+        var inv = new Inventory(InventoryType.CHEST_6_ROW, "test");
+        for (int slot = 0; slot < 54; slot++) {
+            if (slot != 30 && slot != 50) inv.setItemStack(slot, ItemStack.of(Material.DIRT));
+        }
+
+        var index = InventoryIndex.attach(inv);
+        assertEquals(BitSet.valueOf(new long[]{(1L << 30) | (1L << 50)}), index.emptySlots());
+
+        var contiguous = InventoryView.contiguous(27, 54);
+        var arbitrary = InventoryView.arbitrary(53, 50, 30, 20);
+        assertEquals(3, contiguous.firstEmpty(inv));
+        assertEquals(1, arbitrary.firstEmpty(inv));
+        assertEquals(-1, InventoryView.contiguous(0, 27).firstEmpty(inv));
+
+        // Layouts and locked views are searched like the views that they wrap, and unmapped slots are skipped
+        assertEquals(30, Views.forType(InventoryType.CHEST_6_ROW).firstEmpty(inv));
+        assertEquals(3, Views.doubleChest().storage().forkRange(27, 54).firstEmpty(inv));
+        assertEquals(30, Views.doubleChest().withLocking(LockStrategy.none()).firstEmpty(inv));
+        assertEquals(-1, InventoryView.join(InventoryView.contiguous(0, 10), InventoryView.contiguous(5, 12)).firstEmpty(inv));
+
+        // Both empty slots are filled by one bulk insert, and the rest is returned
+        var diamond = ItemStack.of(Material.DIAMOND);
+        var emerald = ItemStack.of(Material.EMERALD);
+        var gold = ItemStack.of(Material.GOLD_INGOT);
+        assertEquals(List.of(gold), contiguous.addAll(inv, List.of(diamond, emerald, gold)));
+        assertEquals(diamond, inv.getItemStack(30));
+        assertEquals(emerald, inv.getItemStack(50));
+        assertTrue(index.emptySlots().isEmpty());
+        assertEquals(-1, contiguous.firstEmpty(inv));
+
+        inv.setItemStack(28, ItemStack.AIR);
+        assertEquals(1, contiguous.firstEmpty(inv));
+        index.detach();
+    }
+
+    @Test
+    public void testIndexReadsLatestWrite() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+
+        // The index sees the write of dirt after the nested write of stone replaced it, so it has to read the slot
+        var listener = EventListener.of(InventoryItemChangeEvent.class, event -> {
+            if (event.getNewItem().material() == Material.DIRT) inv.setItemStack(3, ItemStack.of(Material.STONE));
+        });
+        inv.eventNode().addListener(listener);
+        var index = InventoryIndex.attach(inv);
+
+        inv.setItemStack(3, ItemStack.of(Material.DIRT));
+        assertEquals(ItemStack.of(Material.STONE), inv.getItemStack(3));
+        assertEquals(BitSet.valueOf(new long[]{1L << 3}), index.slots(Material.STONE));
+        assertTrue(index.slots(Material.DIRT).isEmpty());
+
+        inv.eventNode().removeListener(listener);
+        index.detach();
+    }
+
+    @Test
+    public void testStaleIndexEmptySlots() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        var view = InventoryView.contiguous(0, 9);
+        view.fill(inv, slot -> ItemStack.of(Material.DIRT));
+
+        // Listeners added before the index see writes before it does, so it still considers the slot full
+        var onEmptied = new Runnable[1];
+        var listener = EventListener.of(InventoryItemChangeEvent.class, event -> {
+            var action = onEmptied[0];
+            onEmptied[0] = null;
+            if (action != null) action.run();
+        });
+        inv.eventNode().addListener(listener);
+        var index = InventoryIndex.attach(inv);
+
+        var results = new int[3];
+        onEmptied[0] = () -> {
+            results[0] = view.firstEmpty(inv);
+            results[1] = view.add(inv, ItemStack.of(Material.DIAMOND)).amount();
+        };
+        inv.setItemStack(4, ItemStack.AIR);
+        onEmptied[0] = () -> results[2] = view.addAll(inv, List.of(ItemStack.of(Material.EMERALD))).size();
+        inv.setItemStack(6, ItemStack.AIR);
+
+        assertArrayEquals(new int[]{4, 0, 0}, results);
+        assertEquals(ItemStack.of(Material.DIAMOND), inv.getItemStack(4));
+        assertEquals(ItemStack.of(Material.EMERALD), inv.getItemStack(6));
+
+        inv.eventNode().removeListener(listener);
+        index.detach();
+    }
+
+    @Test
+    public void testAddAll() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        var view = InventoryView.contiguous(2, 6);
+
+        inv.setItemStack(3, stone(60));
+        inv.setItemStack(5, ItemStack.of(Material.DIRT, 10));
+
+        var leftovers = view.addAll(inv, List.of(stone(10), ItemStack.of(Material.DIRT, 60), stone(64), stone(64), stone(5)));
+
+        assertEquals(stone(64), inv.getItemStack(2)); // Placed after the merge into slot 3, then merged into again
+        assertEquals(stone(64), inv.getItemStack(3));
+        assertEquals(ItemStack.of(Material.DIRT, 6), inv.getItemStack(4));
+        assertEquals(ItemStack.of(Material.DIRT, 64), inv.getItemStack(5));
+        assertEquals(List.of(stone(6), stone(64), stone(5)), leftovers);
+
+        assertEquals(stone(3), view.add(inv, stone(3)));
+        assertTrue(inv.getItemStack(0).isAir());
+        assertEquals(ItemStack.AIR, InventoryView.contiguous(0, 2).add(inv, stone(3)));
+        assertEquals(stone(3), inv.getItemStack(0));
+    }
+
+    @Test
+    public void testAddOverlapping() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        var overlapping = InventoryView.union(InventoryView.contiguous(0, 1), InventoryView.contiguous(0, 1));
+
+        // Each repeated slot is only merged into once, so no items are lost
+        inv.setItemStack(0, stone(10));
+        assertEquals(stone(6), overlapping.add(inv, stone(60)));
+        assertEquals(stone(64), inv.getItemStack(0));
+
+        inv.setItemStack(0, stone(10));
+        assertEquals(List.of(stone(6)), overlapping.addAll(inv, List.of(stone(60))));
+        assertEquals(stone(64), inv.getItemStack(0));
+
+        inv.setItemStack(0, ItemStack.AIR);
+        assertEquals(List.of(stone(20)), InventoryView.arbitrary(0, 0).addAll(inv, List.of(stone(50), stone(34))));
+        assertEquals(stone(64), inv.getItemStack(0));
+    }
+
+    @Test
+    public void testTransaction() {
+        var inv = new Inventory(InventoryType.MERCHANT, "test");
+        var merchant = Views.merchant();
+
+        merchant.input().left().set(inv, stone(10));
+        merchant.transaction(inv, tx -> {
+            var input = tx.get(0);
+            tx.set(0, input.withAmount(input.amount() - 4));
+            tx.set(2, ItemStack.of(Material.DIRT));
+            assertEquals(stone(10), merchant.input().left().get(inv)); // Not committed yet
+        });
+        assertEquals(stone(6), merchant.input().left().get(inv));
+        assertEquals(ItemStack.of(Material.DIRT), merchant.output().get(inv));
+
+        assertThrows(IllegalStateException.class, () -> merchant.transaction(inv, tx -> {
+            tx.set(0, ItemStack.AIR);
+            throw new IllegalStateException();
+        }));
+        assertEquals(stone(6), merchant.input().left().get(inv));
+
+        // Conflicting changes cause the action to be run again on the new contents
+        var runs = new int[1];
+        merchant.transaction(inv, tx -> {
+            if (runs[0]++ == 0) {
+                merchant.input().left().set(inv, stone(2));
+            }
+            tx.set(1, tx.get(0));
+        });
+        assertEquals(2, runs[0]);
+        assertEquals(stone(2), merchant.input().right().get(inv));
+    }
+
+    @Test
+    public void testStripedLocking() {
+        var inv = new Inventory(InventoryType.CHEST_6_ROW, "test");
+        var striped = Views.doubleChest().storage().withLocking(LockStrategy.striped());
+        assertSame(LockStrategy.striped(), striped.forkRange(0, 9).lockStrategy());
+        assertSame(LockStrategy.striped(), striped.fork(3).lockStrategy());
+        assertSame(LockStrategy.striped(), striped.fork(3, 1).lockStrategy());
+        assertEquals(3, striped.forkRange(2, 9).forkRange(1, 3).localToExternal(0));
+        assertSame(LockStrategy.striped(), striped.compile().lockStrategy());
+
+        var first = striped.forkRange(0, 9);
+        var second = striped.forkRange(9, 18);
+
+        // Holding the first row must not block writes to the second row
+        var latch = new CountDownLatch(1);
+        LockStrategy.striped().withLock(inv, new int[]{0, 8}, () -> {
+            new Thread(() -> {
+                second.fill(inv, slot -> stone(1));
+                latch.countDown();
+            }).start();
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            first.set(inv, 0, stone(2));
+            return null;
+        });
+
+        assertEquals(stone(2), inv.getItemStack(0));
+        assertEquals(stone(1), inv.getItemStack(17));
+    }
+
+    @Test
+    public void testLockStrategies() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        var view = InventoryView.contiguous(0, 9);
+        assertSame(LockStrategy.global(), view.lockStrategy());
+        assertThrows(IllegalArgumentException.class, () -> LockStrategy.setGlobal(LockStrategy.global()));
+
+        for (var strategy : List.of(LockStrategy.monitor(), LockStrategy.reentrant(), LockStrategy.none(), LockStrategy.striped())) {
+            var locked = view.withLocking(strategy);
+            assertSame(strategy, locked.lockStrategy());
+
+            assertEquals(ItemStack.AIR, locked.add(inv, stone(1)));
+            locked.clear(inv);
+            assertTrue(inv.getItemStack(0).isAir());
+        }
+    }
+
+    @Test
+    public void testSharedSlotsAreNotExposed() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+
+        // Custom strategies get their own copy of the slots, so modifying it can't change any views
+        LockStrategy vandal = new LockStrategy() {
+            @Override
+            public <T> T withLock(@NotNull AbstractInventory inv, int @NotNull [] externalSlots, @NotNull Supplier<T> action) {
+                Arrays.fill(externalSlots, 8);
+                return action.get();
+            }
+        };
+
+        for (var view : List.of(InventoryView.contiguous(0, 3), InventoryView.arbitrary(2, 0, 1).compile(),
+                InventoryView.union(InventoryView.contiguous(0, 1), InventoryView.contiguous(1, 3)))) {
+            var slots = view.externalSlots();
+            view.withLocking(vandal).collect(inv);
+            view.externalSlots()[0] = 8;
+            assertArrayEquals(slots, view.externalSlots());
+
+            view.fill(inv, slot -> stone(slot + 1));
+            assertEquals(ItemStack.AIR, inv.getItemStack(8));
+            inv.clear();
+        }
+    }
+
+    @Test
+    public void testSnapshots() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        var view = InventoryView.union(InventoryView.contiguous(6, 9), InventoryView.contiguous(0, 2));
+        inv.setItemStack(7, stone(1));
+        inv.setItemStack(1, stone(2));
+
+        var dest = new ItemStack[7];
+        view.collectInto(inv, dest, 2);
+        assertArrayEquals(new ItemStack[]{null, null, ItemStack.AIR, stone(1), ItemStack.AIR, ItemStack.AIR, stone(2)}, dest);
+        assertThrows(IndexOutOfBoundsException.class, () -> view.collectInto(inv, dest, 3));
+
+        var snapshot = view.snapshot(inv);
+        assertEquals(view.collect(inv), snapshot.toList());
+
+        inv.setItemStack(8, stone(3));
+        assertTrue(snapshot.get(2).isAir());
+        snapshot.refill(inv);
+        assertEquals(stone(3), snapshot.get(2));
+        assertEquals(view.collect(inv), snapshot.toList());
+    }
+
+    @Test
+    public void testDiffAndElidedWrites() {
+        var inv = new Inventory(InventoryType.CHEST_2_ROW, "test");
+        var view = InventoryView.contiguous(9, 18).reverse();
+        inv.setItemStack(10, stone(1));
+
+        var snapshot = view.snapshot(inv);
+        assertEquals(IntList.of(), view.diff(inv, snapshot));
+        inv.setItemStack(17, stone(2));
+        inv.setItemStack(10, stone(1)); // Equal but not identical
+        inv.setItemStack(9, stone(3));
+        assertEquals(IntList.of(0, 8), view.diff(inv, snapshot));
+        assertThrows(IllegalArgumentException.class, () -> view.diff(inv, InventoryView.contiguous(0, 3).snapshot(inv)));
+
+        var writes = new IntArrayList();
+        var listener = EventListener.of(InventoryItemChangeEvent.class, event -> writes.add(event.getSlot()));
+        inv.eventNode().addListener(listener);
+
+        view.fill(inv, slot -> slot < 4 ? stone(slot + 1) : ItemStack.AIR, InventoryView.WriteMode.CHANGED);
+        assertEquals(IntList.of(17, 16, 15, 14, 10, 9), writes);
+        assertEquals(stone(2), inv.getItemStack(16));
+
+        writes.clear();
+        view.clear(inv, InventoryView.WriteMode.CHANGED);
+        assertEquals(IntList.of(17, 16, 15, 14), writes);
+        inv.eventNode().removeListener(listener);
+    }
+
+    @Test
+    public void testWriteBuffer() {
+        var inv = new Inventory(InventoryType.CHEST_2_ROW, "test");
+        inv.setItemStack(4, stone(1));
+
+        var writes = new IntArrayList();
+        var listener = EventListener.of(InventoryItemChangeEvent.class, event -> writes.add(event.getSlot()));
+        inv.eventNode().addListener(listener);
+
+        var top = InventoryView.contiguous(0, 9);
+        var bottom = InventoryView.contiguous(9, 18).reverse();
+        try (var buffer = new ViewWriteBuffer(inv)) {
+            buffer.set(top, 4, stone(1)); // Unchanged, so it's dropped
+            buffer.set(top, 0, stone(2));
+            buffer.set(bottom, 0, stone(3));
+            buffer.set(top, 0, stone(4));
+            assertEquals(3, buffer.pending());
+            assertEquals(stone(4), buffer.get(top, 0));
+            assertEquals(stone(3), buffer.get(InventoryView.contiguous(17, 18), 0));
+            assertEquals(ItemStack.AIR, inv.getItemStack(0));
+            assertThrows(IllegalArgumentException.class, () -> buffer.set(InventoryView.contiguous(18, 20), 0, stone(1)));
+        }
+        assertEquals(IntList.of(0, 17), writes);
+        assertEquals(stone(4), inv.getItemStack(0));
+        assertEquals(stone(3), inv.getItemStack(17));
+
+        // Changing most of the inventory takes the full update path, which still applies every write
+        writes.clear();
+        var buffer = new ViewWriteBuffer(inv);
+        buffer.fill(InventoryView.contiguous(0, 18), slot -> slot == 4 ? stone(1) : stone(slot + 1));
+        assertEquals(17, buffer.flush());
+        assertEquals(17, writes.size());
+        assertEquals(stone(18), inv.getItemStack(17));
+        assertEquals(0, buffer.pending());
+
+        buffer.set(top, 0, ItemStack.AIR);
+        buffer.discard();
+        assertEquals(0, buffer.flush());
+        inv.eventNode().removeListener(listener);
+    }
+
+    @Test
+    public void testCustomDelegateView() {
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+
+        // Only the records in Views are unwrapped, so the overrides of other delegates are respected
+        Views.DelegateView reversed = new Views.DelegateView() {
+            @Override
+            public @NotNull InventoryView view() {
+                return InventoryView.contiguous(0, 9);
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return isValidLocal(localSlot) ? 8 - localSlot : -1;
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                return isValidExternal(externalSlot) ? 8 - externalSlot : -1;
+            }
+        };
+
+        reversed.set(inv, 0, stone(1));
+        assertEquals(stone(1), inv.getItemStack(8));
+        assertEquals(stone(1), reversed.get(inv, 0));
+
+        reversed.fill(inv, slot -> stone(slot + 1));
+        assertEquals(stone(9), inv.getItemStack(0));
+        assertEquals(stone(1), reversed.collect(inv).get(0));
+        var out = new ItemStack[2];
+        reversed.getAll(inv, new int[]{8, 7}, out);
+        assertArrayEquals(new ItemStack[]{stone(9), stone(8)}, out);
+        assertArrayEquals(new int[]{8, 7, 6, 5, 4, 3, 2, 1, 0}, reversed.externalSlots());
+    }
+
+    @Test
+    public void testBuiltInFastPaths() {
+        var inv = new Inventory(InventoryType.CHEST_6_ROW, "test");
+        for (int slot = 0; slot < 54; slot++) {
+            inv.setItemStack(slot, stone(slot + 1));
+        }
+
+        // Not built in, so it takes the generic path, and so does anything that joins it
+        InventoryView custom = new InventoryView() {
+            @Override
+            public int size() {
+                return 10;
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return isValidLocal(localSlot) ? 50 - localSlot * 2 : -1;
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                return isValidExternal(externalSlot) ? (50 - externalSlot) / 2 : -1;
+            }
+
+            @Override
+            public boolean isValidExternal(int externalSlot) {
+                return externalSlot <= 50 && externalSlot > 30 && externalSlot % 2 == 0;
+            }
+        };
+
+        var views = List.of(
+                Views.DoubleChest.STORAGE,
+                new Views.Chest(),
+                InventoryView.contiguous(10, 30).reverse(),
+                InventoryView.arbitrary(40, 3, 17, 22, 9),
+                InventoryView.union(InventoryView.contiguous(0, 4), InventoryView.arbitrary(30, 20), InventoryView.contiguous(45, 50).reverse()),
+                InventoryView.contiguous(5, 25).compile(),
+                InventoryView.contiguous(5, 25).withLocking(LockStrategy.none()),
+                custom,
+                custom.forkRange(2, 8),
+                custom.forkRange(2, 8).reverse()
+        );
+
+        for (var view : views) {
+            var expected = new ItemStack[view.size()];
+            for (int slot = 0; slot < expected.length; slot++) {
+                expected[slot] = inv.getItemStack(view.localToExternal(slot));
+                assertEquals(expected[slot], view.get(inv, slot));
+            }
+            assertEquals(List.of(expected), view.collect(inv));
+
+            var range = new ItemStack[view.size() - 2];
+            view.getRange(inv, 1, view.size() - 1, range);
+            assertArrayEquals(Arrays.copyOfRange(expected, 1, expected.length - 1), range);
+
+            var some = new ItemStack[2];
+            view.getAll(inv, new int[]{view.size() - 1, 0}, some);
+            assertArrayEquals(new ItemStack[]{expected[expected.length - 1], expected[0]}, some);
+        }
+    }
+
+    @Test
+    public void testMetrics() {
+        var inv = new Inventory(InventoryType.CHEST_3_ROW, "test");
+        var metrics = new RecordingViewMetrics();
+        var chest = new Views.Chest();
+        var named = InventoryView.contiguous(5, 10);
+        ViewMetrics.name(named, "named");
+        assertEquals("Chest", ViewMetrics.nameOf(chest));
+        assertEquals("Player.Armor", ViewMetrics.nameOf(Views.player().armor()));
+        assertNull(ViewMetrics.nameOf(InventoryView.contiguous(0, 1)));
+
+        ViewMetrics.setGlobal(metrics);
+        try {
+            chest.set(inv, 0, stone(1));
+            chest.get(inv, 0);
+            chest.add(inv, stone(2));
+            named.fill(inv, slot -> stone(3));
+            named.clear(inv);
+            named.parallelFill(inv, slot -> stone(4));
+            Views.Chest.STORAGE.collect(inv);
+        } finally {
+            ViewMetrics.setGlobal(ViewMetrics.none());
+        }
+        chest.get(inv, 0); // Not recorded
+
+        assertEquals(1, metrics.histogram(ViewMetrics.Operation.GET).count());
+        assertEquals(1, metrics.histogram(ViewMetrics.Operation.ADD, "Chest").count());
+        assertEquals(3, metrics.histogram(ViewMetrics.Operation.FILL, "named").count());
+        assertEquals(1, metrics.histogram(ViewMetrics.Operation.COLLECT).count());
+        assertEquals(0, metrics.histogram(ViewMetrics.Operation.COLLECT, "Chest").count());
+        assertEquals(Set.of("Chest", "named"), metrics.viewNames());
+        assertEquals(5, metrics.lockWait().count()); // add, all three fills, and collect
+
+        var histogram = metrics.histogram(ViewMetrics.Operation.ADD);
+        assertTrue(histogram.totalNanos() > 0);
+        assertEquals(histogram.maxNanos(), histogram.percentileNanos(100));
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws IOException {
+        var inv = new Inventory(InventoryType.CHEST_3_ROW, "test");
+        var chest = new Views.Chest();
+        inv.setItemStack(0, stone(60));
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable("net.goldenstack.window.Add");
+            recording.enable("net.goldenstack.window.BulkWrite");
+            recording.enable("net.goldenstack.window.Transaction");
+            recording.start();
+
+            chest.addAll(inv, List.of(stone(10), ItemStack.of(Material.DIAMOND)));
+            chest.fill(inv, slot -> slot == 1 ? ItemStack.of(Material.DIAMOND) : ItemStack.AIR, InventoryView.WriteMode.CHANGED);
+            chest.transaction(inv, transaction -> transaction.set(5, stone(1)));
+            Views.Chest.STORAGE.forkRange(20, 25).parallelFill(inv, slot -> stone(slot + 1));
+            recording.stop();
+
+            var file = Files.createTempFile("window", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        var add = single(events, "net.goldenstack.window.Add");
+        assertEquals("Chest", add.getString("view"));
+        assertEquals(27, add.getInt("slots"));
+        assertEquals(2, add.getInt("items"));
+        assertEquals(11, add.getInt("moved"));
+
+        var writes = events.stream().filter(event -> event.getEventType().getName().equals("net.goldenstack.window.BulkWrite")).toList();
+        assertEquals(2, writes.size());
+        assertEquals(27, writes.get(0).getInt("slots"));
+        assertEquals(3, writes.get(0).getInt("written")); // Slots 0 to 2, as the rest were already empty
+        assertEquals(5, writes.get(1).getInt("written"));
+
+        var transaction = single(events, "net.goldenstack.window.Transaction");
+        assertEquals(1, transaction.getInt("attempts"));
+        assertFalse(transaction.getBoolean("pessimistic"));
+    }
+
+    @Test
+    public void testTransfer() {
+        var src = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        src.setItemStack(0, stone(40));
+        src.setItemStack(1, ItemStack.of(Material.DIAMOND, 5));
+        src.setItemStack(2, stone(64));
+        src.setItemStack(3, ItemStack.of(Material.DIRT, 10));
+
+        var dst = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        dst.setItemStack(1, stone(60));
+        dst.setItemStack(2, ItemStack.of(Material.DIRT, 64));
+
+        // Stone merges into slot 1 before filling the empty slot 0, and dirt doesn't fit at all
+        var result = InventoryView.transfer(src, InventoryView.contiguous(0, 9), dst, InventoryView.contiguous(0, 3),
+                item -> item.material() != Material.DIAMOND);
+        assertEquals(new InventoryView.TransferResult(2, 68, 46), result);
+        assertFalse(result.complete());
+
+        assertEquals(List.of(ItemStack.AIR, ItemStack.of(Material.DIAMOND, 5), stone(36), ItemStack.of(Material.DIRT, 10)),
+                InventoryView.contiguous(0, 4).collect(src));
+        assertEquals(List.of(stone(64), stone(64), ItemStack.of(Material.DIRT, 64)), InventoryView.contiguous(0, 3).collect(dst));
+
+        // Within one inventory, the views can't overlap
+        var inv = new Inventory(InventoryType.CHEST_1_ROW, "test");
+        inv.setItemStack(0, stone(10));
+        assertThrows(IllegalArgumentException.class,
+                () -> InventoryView.transfer(inv, InventoryView.contiguous(0, 5), inv, InventoryView.contiguous(4, 9), item -> true));
+        // ...and their slots are locked together, so they must share a lock strategy
+        assertThrows(IllegalArgumentException.class, () -> InventoryView.transfer(inv, InventoryView.contiguous(0, 3).withLocking(LockStrategy.reentrant()),
+                inv, InventoryView.contiguous(3, 9).withLocking(LockStrategy.none()), item -> true));
+
+        result = InventoryView.transfer(inv, InventoryView.contiguous(0, 3), inv, InventoryView.contiguous(3, 9).reverse(), item -> true);
+        assertEquals(new InventoryView.TransferResult(1, 10, 0), result);
+        assertTrue(result.complete());
+        assertEquals(ItemStack.AIR, inv.getItemStack(0));
+        assertEquals(stone(10), inv.getItemStack(8));
+
+        // Repeated slots are only moved from once, and only merged into once
+        inv.clear();
+        inv.setItemStack(0, stone(10));
+        inv.setItemStack(1, stone(60));
+        var repeated = InventoryView.union(InventoryView.contiguous(1, 2), InventoryView.contiguous(1, 2));
+        result = InventoryView.transfer(inv, InventoryView.arbitrary(0, 0), inv, repeated, item -> true);
+        assertEquals(new InventoryView.TransferResult(1, 4, 6), result);
+        assertEquals(stone(6), inv.getItemStack(0));
+        assertEquals(stone(64), inv.getItemStack(1));
+    }
+
+    private static @NotNull RecordedEvent single(@NotNull List<RecordedEvent> events, @NotNull String name) {
+        var matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    private static @NotNull ItemStack stone(int amount) {
+        return ItemStack.of(Material.STONE, amount);
+    }
+
+}
@@ -1,10 +1,19 @@
 package net.goldenstack.window.test;
 
 import net.goldenstack.window.InventoryView;
+import net.goldenstack.window.LatencyHistogram;
+import net.goldenstack.window.LockStrategy;
+import net.goldenstack.window.SlotCursor;
+import net.goldenstack.window.ViewInterner;
+import net.goldenstack.window.Views;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
+import net.minestom.server.inventory.InventoryType;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ViewLogicTest {
@@ -68,6 +77,48 @@ public class ViewLogicTest {
 
         var union3 = InventoryView.union();
         assertSize(union3, 0);
+
+        var union4 = InventoryView.union(
+                InventoryView.contiguous(0, 5),
+                InventoryView.arbitrary(),
+                InventoryView.contiguous(20, 25),
+                InventoryView.contiguous(10, 10),
+                InventoryView.contiguous(30, 35)
+        );
+        assertSize(union4, 15);
+        assertSlotRange(union4, 0, 0, 5);
+        assertSlotRange(union4, 5, 20, 5);
+        assertSlotRange(union4, 10, 30, 5);
+        assertFalse(union4.isValidExternal(10));
+
+        // Views implemented elsewhere are asked directly, as they may accept external slots that they don't map to
+        InventoryView aliased = new InventoryView() {
+            @Override
+            public int size() {
+                return 2;
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return isValidLocal(localSlot) ? localSlot : -1;
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                return externalSlot == 5 ? 1 : externalSlot;
+            }
+
+            @Override
+            public boolean isValidExternal(int externalSlot) {
+                return externalSlot == 0 || externalSlot == 1 || externalSlot == 5;
+            }
+        };
+        var union5 = InventoryView.union(aliased, InventoryView.contiguous(5, 7));
+        assertSize(union5, 4);
+        assertEquals(1, union5.externalToLocal(5));
+        assertEquals(3, union5.externalToLocal(6));
+        assertTrue(union5.isValidExternal(5));
+        assertFalse(union5.isValidExternal(2));
     }
 
     @Test
@@ -96,6 +147,23 @@ public class ViewLogicTest {
         var view3 = InventoryView.arbitrary();
         assertSize(view3, 0);
 
+        // Runs of consecutive slots
+        var view4 = InventoryView.arbitrary(2, 3, 4, 5, 20, 21, 22, 15000, 15001);
+        assertSize(view4, 9);
+        assertSlotRange(view4, 0, 2, 4);
+        assertSlotRange(view4, 4, 20, 3);
+        assertSlotRange(view4, 7, 15000, 2);
+        assertFalse(view4.isValidExternal(6));
+        assertFalse(view4.isValidExternal(1));
+        assertFalse(view4.isValidExternal(15002));
+
+        // Duplicate slots use the last local slot, for every encoding
+        assertEquals(2, InventoryView.arbitrary(3, 1, 3).externalToLocal(3));
+        assertEquals(2, InventoryView.arbitrary(15000, 1, 15000).externalToLocal(15000));
+
+        assertEquals(InventoryView.arbitrary(1, 3, 7, 2, 21), InventoryView.arbitrary(1, 3, 7, 2, 21));
+        assertNotEquals(InventoryView.arbitrary(1, 3, 7, 2, 21), InventoryView.arbitrary(1, 3, 7, 2));
+
         assertThrows(IllegalArgumentException.class, () -> InventoryView.arbitrary(1, 2, 3, -4));
         assertThrows(IllegalArgumentException.class, () -> InventoryView.arbitrary(-500));
     }
@@ -171,6 +239,236 @@ public class ViewLogicTest {
         assertEquals(singular.localToExternal(0), singular.reverse().localToExternal(0));
     }
 
+    @Test
+    public void testSimplification() {
+        assertEquals(InventoryView.contiguous(30, 40), InventoryView.join(InventoryView.contiguous(10, 60), InventoryView.contiguous(20, 30)));
+        assertEquals(InventoryView.contiguous(3, 6), InventoryView.arbitrary(3, 4, 5));
+        assertEquals(InventoryView.singular(44), Views.player().armor().boots());
+        assertEquals(InventoryView.contiguous(9, 36), Views.player().contents().storage());
+        assertEquals(InventoryView.arbitrary(11, 13, 17), InventoryView.contiguous(10, 20).fork(1, 3, 7));
+
+        var view = InventoryView.contiguous(10, 20);
+        assertSame(view, view.forkRange(0, 10));
+        assertSame(view, view.reverse().reverse());
+
+        var singular = InventoryView.singular(5);
+        assertSame(singular, singular.reverse());
+
+        var union = InventoryView.union(
+                InventoryView.contiguous(0, 5),
+                InventoryView.union(InventoryView.contiguous(5, 9), InventoryView.arbitrary()),
+                InventoryView.contiguous(20, 30)
+        );
+        assertEquals(InventoryView.union(InventoryView.contiguous(0, 9), InventoryView.contiguous(20, 30)), union);
+        assertEquals(InventoryView.contiguous(0, 9), InventoryView.union(InventoryView.contiguous(0, 4), InventoryView.contiguous(4, 9)));
+
+        // Joins that can't be simplified still behave the same
+        var partial = InventoryView.join(InventoryView.contiguous(0, 10), InventoryView.contiguous(5, 12));
+        assertSlotRange(partial, 0, 5, 5);
+        assertLocalFailures(partial, 5, 6);
+    }
+
+    @Test
+    public void testInterning() {
+        var interner = new ViewInterner(1024);
+        var parent = InventoryView.contiguous(10, 60);
+
+        assertSame(interner.fork(parent, 3), interner.fork(parent, 3));
+        assertSame(interner.forkRange(parent, 2, 8), interner.forkRange(InventoryView.contiguous(10, 60), 2, 8));
+        assertSame(interner.fork(parent, 5, 1, 2), interner.fork(parent, 5, 1, 2));
+        assertNotSame(interner.fork(parent, 5, 1, 2), interner.fork(parent, 5, 1, 3));
+
+        var forked = interner.forkRange(parent, 2, 8);
+        assertSame(forked, interner.intern(InventoryView.contiguous(12, 18)));
+        assertSlotRange(forked, 0, 12, 6);
+
+        // Forks of the same slots are kept apart, as they can be of different types
+        InventoryView custom = new InventoryView() {
+            @Override
+            public int size() {
+                return 10;
+            }
+
+            @Override
+            public int localToExternal(int localSlot) {
+                return isValidLocal(localSlot) ? localSlot : -1;
+            }
+
+            @Override
+            public int externalToLocal(int externalSlot) {
+                return isValidExternal(externalSlot) ? externalSlot : -1;
+            }
+
+            @Override
+            public boolean isValidExternal(int externalSlot) {
+                return externalSlot >= 0 && externalSlot < 10;
+            }
+
+            @Override
+            public @NotNull InventoryView forkRange(int localMin, int localMax) {
+                Views.DelegateView range = () -> InventoryView.contiguous(localMin, localMax);
+                return range;
+            }
+        };
+        assertFalse(interner.forkRange(custom, 1, 2) instanceof InventoryView.Singular);
+        assertSame(interner.fork(custom, 1), interner.fork(custom, 1));
+        assertSlotRange(interner.fork(custom, 1), 0, 1, 1);
+    }
+
+    @Test
+    public void testSlotIteration() {
+        var views = List.of(
+                InventoryView.contiguous(10, 60).forkRange(5, 40).fork(3, 1, 20),
+                InventoryView.join(InventoryView.contiguous(0, 10), InventoryView.contiguous(5, 12)),
+                InventoryView.union(InventoryView.contiguous(30, 40), InventoryView.arbitrary(15000, 2, 7)),
+                InventoryView.arbitrary(2, 3, 4, 5, 20, 21, 22, 15000, 15001),
+                InventoryView.contiguous(4, 12).reverse(),
+                InventoryView.union(InventoryView.contiguous(10, 15), InventoryView.contiguous(20, 25)).compile(),
+                Views.player().crafting()
+        );
+
+        var cursor = new SlotCursor();
+        for (var view : views) {
+            int[] expected = new int[view.size()];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = view.localToExternal(i);
+            }
+            assertArrayEquals(expected, view.externalSlots());
+
+            var visited = new IntArrayList();
+            view.forEachExternal(visited::add);
+            assertArrayEquals(expected, visited.toIntArray());
+
+            cursor.reset(view);
+            for (int i = 0; i < expected.length; i++) {
+                assertTrue(cursor.next());
+                assertEquals(i, cursor.local());
+                assertEquals(expected[i], cursor.external());
+            }
+            assertFalse(cursor.next());
+
+            assertArrayEquals(expected, view.slotStream().toArray());
+            assertArrayEquals(expected, view.slotStream().parallel().toArray());
+        }
+
+        // Unions split at the boundaries between their members
+        var union = InventoryView.union(InventoryView.contiguous(0, 3), InventoryView.arbitrary(9, 7, 5, 3, 1, 2));
+        var spliterator = union.slotStream().spliterator();
+        var prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(3, prefix.estimateSize());
+        assertEquals(6, spliterator.estimateSize());
+    }
+
+    @Test
+    public void testCompiled() {
+        var joined = InventoryView.contiguous(10, 60).forkRange(5, 40).forkRange(2, 30).fork(3, 1, 20);
+        assertEquivalent(joined, joined.compile());
+
+        var union = InventoryView.union(
+                InventoryView.contiguous(10, 20),
+                InventoryView.contiguous(15000, 15010),
+                InventoryView.contiguous(15, 25)
+        );
+        assertEquivalent(union, union.compile());
+
+        var reversed = InventoryView.contiguous(4, 12).reverse();
+        assertEquivalent(reversed, reversed.compile());
+
+        var compiled = InventoryView.arbitrary(15000, 0, 10, 400).compile();
+        assertSize(compiled, 4);
+        assertSlots(compiled, IntList.of(0, 1, 2, 3), IntList.of(15000, 0, 10, 400));
+        assertFalse(compiled.isValidExternal(1));
+        assertSame(compiled, compiled.compile());
+
+        // Compiled views with the same mapping are equal, so they can be interned and keyed on
+        var recompiled = InventoryView.arbitrary(15000, 0, 10, 400).compile();
+        assertNotSame(compiled, recompiled);
+        assertEquals(compiled, recompiled);
+        assertEquals(compiled.hashCode(), recompiled.hashCode());
+        assertSame(ViewInterner.global().intern(compiled), ViewInterner.global().intern(recompiled));
+        assertNotEquals(compiled, InventoryView.arbitrary(15000, 0, 10, 401).compile());
+        assertNotEquals(compiled, recompiled.withLocking(LockStrategy.none()).compile());
+
+        assertSize(InventoryView.arbitrary().compile(), 0);
+    }
+
+    @Test
+    public void testSpecialize() {
+        var views = List.of(
+                InventoryView.contiguous(5, 10),
+                InventoryView.contiguous(5, 10).reverse(),
+                InventoryView.contiguous(0, 0),
+                InventoryView.singular(70000),
+                InventoryView.arbitrary(8, 3, 5, 4, 0),
+                InventoryView.arbitrary(10, 100000, 5, 3000),
+                InventoryView.union(InventoryView.contiguous(0, 3), InventoryView.contiguous(6, 9), InventoryView.contiguous(2, 4)),
+                Views.player().crafting().input(),
+                Views.Player.VIEW.fork(44, 3, 9, 1).reverse(),
+                InventoryView.join(InventoryView.contiguous(0, 10), InventoryView.contiguous(5, 12))
+        );
+
+        for (var view : views) {
+            var specialized = view.specialize();
+            assertTrue(specialized.getClass().isHidden());
+            assertEquivalent(view, specialized);
+            assertEquivalent(view.compile(), specialized);
+            assertLocalFailures(specialized, -1, view.size(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+            for (int local = 0; local < view.size(); local++) {
+                assertEquals(view.compile().isValidLocal(local), specialized.isValidLocal(local));
+            }
+
+            for (int external = -2; external < 200; external++) {
+                assertEquals(view.compile().externalToLocal(external), specialized.externalToLocal(external));
+                assertEquals(view.compile().isValidExternal(external), specialized.isValidExternal(external));
+            }
+            assertEquals(-1, specialized.externalToLocal(Integer.MIN_VALUE));
+            assertEquals(-1, specialized.externalToLocal(Integer.MAX_VALUE));
+        }
+
+        var locked = InventoryView.contiguous(0, 9).withLocking(LockStrategy.none()).specialize();
+        assertSame(LockStrategy.none(), locked.lockStrategy());
+        assertFalse(InventoryView.contiguous(0, 5000).specialize().getClass().isHidden());
+    }
+
+    @Test
+    public void testViewsForType() {
+        for (var type : InventoryType.values()) {
+            var layout = Views.forType(type);
+            assertEquals(type.getSize(), layout.size(), type.name());
+            assertSame(layout, Views.forType(type));
+        }
+
+        assertSame(Views.chest(), Views.forType(InventoryType.CHEST_3_ROW));
+        assertSame(Views.doubleChest(), Views.forType(InventoryType.CHEST_6_ROW));
+        assertSame(Views.craftingTable(), Views.forType(InventoryType.CRAFTING));
+        assertSame(Views.dispenser(), Views.forType(InventoryType.WINDOW_3X3));
+        assertEquivalent(InventoryView.contiguous(0, 18), Views.forType(InventoryType.CHEST_2_ROW));
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileNanos(50));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(101, histogram.count());
+        assertEquals(5050_000, histogram.totalNanos());
+        assertEquals(100_000, histogram.maxNanos());
+        assertEquals(0, histogram.percentileNanos(0));
+        assertEquals(100_000, histogram.percentileNanos(100));
+
+        // Buckets are at most 12.5% wide, so the estimate is within that of the real value
+        long median = histogram.percentileNanos(50);
+        assertTrue(median >= 50_000 && median <= 50_000 * 1.125, "median " + median);
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentileNanos(101));
+    }
+
     private static void assertSize(@NotNull InventoryView view, int size) {
         assertEquals(size, view.size());
         assertLocalFailures(view, -1, size);
@@ -201,6 +499,18 @@ public class ViewLogicTest {
         }
     }
 
+    private static void assertEquivalent(@NotNull InventoryView expected, @NotNull InventoryView actual) {
+        assertSize(actual, expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.isValidLocal(i), actual.isValidLocal(i));
+            assertEquals(expected.localToExternal(i), actual.localToExternal(i));
+
+            var external = expected.localToExternal(i);
+            assertEquals(expected.isValidExternal(external), actual.isValidExternal(external));
+            assertEquals(expected.externalToLocal(external), actual.externalToLocal(external));
+        }
+    }
+
     private static void assertLocalFailures(@NotNull InventoryView view, int @NotNull ... localFailures) {
         for (var failure : localFailures) {
             assertFalse(view.isValidLocal(failure));